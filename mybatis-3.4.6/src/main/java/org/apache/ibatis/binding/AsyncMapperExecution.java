@@ -0,0 +1,63 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+import org.apache.ibatis.lang.UsesJava8;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.defaults.DefaultAsyncExecutor;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
+
+/**
+ * Runs mapper methods declared to return a {@link CompletableFuture} or a {@link CompletionStage}.
+ * <p>
+ * Each call runs on {@link Configuration#getAsyncExecutor()} in a session of its own, opened with the
+ * default executor type. The session is committed when the statement succeeds and closed (rolling back
+ * any uncommitted change) when the future completes. The call does not take part in the transaction
+ * of the session it was invoked on and does not see its uncommitted changes.
+ */
+@UsesJava8
+public final class AsyncMapperExecution {
+
+  private AsyncMapperExecution() {
+    // Prevent Instantiation of Static Class
+  }
+
+  public static boolean isFutureType(Class<?> type) {
+    return CompletableFuture.class.equals(type) || CompletionStage.class.equals(type);
+  }
+
+  static CompletableFuture<Object> submit(final MapperMethod mapperMethod, final Configuration configuration, final Object[] args) {
+    return CompletableFuture.supplyAsync(new Supplier<Object>() {
+      @Override
+      public Object get() {
+        SqlSession sqlSession = new DefaultSqlSessionFactory(configuration).openSession();
+        try {
+          Object result = mapperMethod.executeCommand(sqlSession, args);
+          sqlSession.commit();
+          return result;
+        } finally {
+          sqlSession.close();
+        }
+      }
+    }, DefaultAsyncExecutor.of(configuration));
+  }
+
+}
@@ -15,8 +15,10 @@
  */
 package org.apache.ibatis.builder;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -63,6 +65,18 @@ public abstract class BaseBuilder {
     return new HashSet<String>(Arrays.asList(value.split(",")));
   }
 
+  protected List<String> stringListValueOf(String value) {
+    List<String> values = new ArrayList<String>();
+    if (value != null) {
+      for (String element : value.split(",")) {
+        if (element.trim().length() > 0) {
+          values.add(element.trim());
+        }
+      }
+    }
+    return values;
+  }
+
   protected JdbcType resolveJdbcType(String alias) {
     if (alias == null) {
       return null;
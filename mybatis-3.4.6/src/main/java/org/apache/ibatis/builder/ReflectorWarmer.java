@@ -0,0 +1,180 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMap;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.defaults.DefaultAsyncExecutor;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+/**
+ * Builds the {@link Reflector}s of all result and parameter types of a configuration up front,
+ * so the first statements do not pay for reflecting their beans on the request thread.
+ * <p>
+ * The types of the result maps, parameter maps and statements are reflected in parallel on the
+ * {@link Configuration#getAsyncExecutor() async executor}, followed by the types of their bean properties.
+ * Types with a type handler, collections and maps are skipped.
+ */
+public final class ReflectorWarmer {
+
+  private static final Log log = LogFactory.getLog(ReflectorWarmer.class);
+
+  private final Configuration configuration;
+  private final ReflectorFactory reflectorFactory;
+  private final TypeHandlerRegistry typeHandlerRegistry;
+  private final int threads;
+  private final Set<Class<?>> visitedTypes = new HashSet<Class<?>>();
+
+  private ReflectorWarmer(Configuration configuration, int threads) {
+    this.configuration = configuration;
+    this.reflectorFactory = configuration.getReflectorFactory();
+    this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+    this.threads = threads;
+  }
+
+  /**
+   * Reflects the types of the configuration with one thread per available processor.
+   */
+  public static void warmUp(Configuration configuration) {
+    warmUp(configuration, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Reflects the types of the configuration with at most <code>threads</code> threads and returns when done.
+   */
+  public static void warmUp(Configuration configuration, int threads) {
+    if (!configuration.getReflectorFactory().isClassCacheEnabled()) {
+      return;
+    }
+    new ReflectorWarmer(configuration, Math.max(threads, 1)).warmUp();
+  }
+
+  private void warmUp() {
+    List<Class<?>> types = new ArrayList<Class<?>>();
+    for (Object resultMap : configuration.getResultMaps()) {
+      if (resultMap instanceof ResultMap) {
+        addType(types, ((ResultMap) resultMap).getType());
+        for (ResultMapping resultMapping : ((ResultMap) resultMap).getResultMappings()) {
+          addType(types, resultMapping.getJavaType());
+        }
+      }
+    }
+    for (Object parameterMap : configuration.getParameterMaps()) {
+      if (parameterMap instanceof ParameterMap) {
+        addType(types, ((ParameterMap) parameterMap).getType());
+      }
+    }
+    if (!hasIncompleteElements()) {
+      for (Object mappedStatement : configuration.getMappedStatements()) {
+        if (mappedStatement instanceof MappedStatement) {
+          ParameterMap parameterMap = ((MappedStatement) mappedStatement).getParameterMap();
+          addType(types, parameterMap.getType());
+          for (ParameterMapping parameterMapping : parameterMap.getParameterMappings()) {
+            addType(types, parameterMapping.getJavaType());
+          }
+        }
+      }
+    }
+    while (!types.isEmpty()) {
+      List<Class<?>> propertyTypes = new ArrayList<Class<?>>();
+      for (Reflector reflector : reflect(types)) {
+        for (String property : reflector.getGetablePropertyNames()) {
+          addType(propertyTypes, reflector.getGetterType(property));
+        }
+      }
+      types = propertyTypes;
+    }
+  }
+
+  /**
+   * Statements are only visited when complete, building them with pending elements would fail.
+   */
+  private boolean hasIncompleteElements() {
+    return !configuration.getIncompleteResultMaps().isEmpty() || !configuration.getIncompleteCacheRefs().isEmpty()
+        || !configuration.getIncompleteStatements().isEmpty() || !configuration.getIncompleteMethods().isEmpty();
+  }
+
+  private void addType(List<Class<?>> types, Class<?> type) {
+    if (type == null || type.isPrimitive() || type.isArray() || type.isInterface()
+        || Modifier.isAbstract(type.getModifiers()) || Collection.class.isAssignableFrom(type)
+        || Map.class.isAssignableFrom(type) || typeHandlerRegistry.hasTypeHandler(type)) {
+      return;
+    }
+    if (visitedTypes.add(type)) {
+      types.add(type);
+    }
+  }
+
+  private Collection<Reflector> reflect(List<Class<?>> types) {
+    final Queue<Class<?>> pending = new ConcurrentLinkedQueue<Class<?>>(types);
+    final Queue<Reflector> reflectors = new ConcurrentLinkedQueue<Reflector>();
+    final CountDownLatch done = new CountDownLatch(types.size());
+    Runnable worker = new Runnable() {
+      @Override
+      public void run() {
+        Class<?> type;
+        while ((type = pending.poll()) != null) {
+          try {
+            reflectors.add(reflectorFactory.findForClass(type));
+          } catch (RuntimeException e) {
+            // the error is raised again when the type is used
+            if (log.isDebugEnabled()) {
+              log.debug("Could not reflect " + type.getName() + ". Cause: " + e);
+            }
+          } finally {
+            done.countDown();
+          }
+        }
+      }
+    };
+    int workers = Math.min(threads, types.size()) - 1;
+    Executor executor = DefaultAsyncExecutor.of(configuration);
+    for (int i = 0; i < workers; i++) {
+      executor.execute(worker);
+    }
+    // the calling thread takes part, so types the pool has not started are reflected here
+    worker.run();
+    try {
+      done.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Collections.emptyList();
+    }
+    return reflectors;
+  }
+
+}
@@ -0,0 +1,295 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.mapping.ParameterMapping;
+
+/**
+ * Rewrites the SQL produced by a {@link SqlSourceBuilder} into a canonical shape so that
+ * statements that only differ in formatting or IN-list length share the same text
+ * (and therefore the same JDBC driver / server side statement cache entry).
+ * <p>
+ * Quoted literals, quoted identifiers and comments are always copied unchanged.
+ */
+public final class SqlNormalizer {
+
+  /**
+   * IN-lists are not padded beyond this size, most databases limit the number of list elements.
+   */
+  public static final int MAX_PADDED_IN_CLAUSE_SIZE = 1000;
+
+  private static final String VALUES = "VALUES";
+
+  private SqlNormalizer() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Collapses every run of whitespace into a single space and removes leading and trailing whitespace.
+   * The line break that ends a <code>--</code> comment is kept.
+   */
+  public static String shrinkWhitespaces(String sql) {
+    StringBuilder builder = new StringBuilder(sql.length());
+    boolean pendingSpace = false;
+    int i = 0;
+    while (i < sql.length()) {
+      if (Character.isWhitespace(sql.charAt(i))) {
+        pendingSpace = builder.length() > 0 && builder.charAt(builder.length() - 1) != '\n';
+        i++;
+        continue;
+      }
+      if (pendingSpace) {
+        builder.append(' ');
+        pendingSpace = false;
+      }
+      int end = skipToken(sql, i);
+      builder.append(sql, i, end);
+      i = end;
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Pads every <code>IN (?, ?, ...)</code> list of bind placeholders to the next power of two
+   * by repeating the last placeholder. The parameter mapping of the repeated placeholder is
+   * duplicated in <code>parameterMappings</code>, so the last bound value is sent again.
+   * <p>
+   * The SQL is returned unchanged when the placeholders can not be matched with the mappings.
+   *
+   * @param sql SQL with <code>?</code> placeholders
+   * @param parameterMappings mappings of the placeholders, updated in place
+   * @return the padded SQL
+   */
+  public static String padInClauseParameters(String sql, List<ParameterMapping> parameterMappings) {
+    if (sql.indexOf('?') == -1) {
+      return sql;
+    }
+    List<ParameterMapping> paddedMappings = new ArrayList<ParameterMapping>(parameterMappings.size());
+    StringBuilder builder = new StringBuilder(sql.length());
+    int placeholders = 0;
+    boolean padded = false;
+    int i = 0;
+    while (i < sql.length()) {
+      char c = sql.charAt(i);
+      if (c == '?') {
+        if (placeholders >= parameterMappings.size()) {
+          return sql;
+        }
+        paddedMappings.add(parameterMappings.get(placeholders++));
+        builder.append(c);
+        i++;
+      } else if (isInKeyword(sql, i)) {
+        int listSize = countPlaceholderList(sql, i + 2);
+        int listEnd = listSize > 0 ? sql.indexOf(')', i + 2) : -1;
+        int paddedSize = paddedSize(listSize);
+        if (listEnd == -1 || paddedSize == listSize || placeholders + listSize > parameterMappings.size()) {
+          builder.append(sql, i, i + 2);
+          i += 2;
+          continue;
+        }
+        int lastPlaceholder = sql.lastIndexOf('?', listEnd);
+        builder.append(sql, i, lastPlaceholder + 1);
+        for (int j = 0; j < listSize; j++) {
+          paddedMappings.add(parameterMappings.get(placeholders++));
+        }
+        ParameterMapping last = parameterMappings.get(placeholders - 1);
+        for (int j = listSize; j < paddedSize; j++) {
+          builder.append(", ?");
+          paddedMappings.add(last);
+        }
+        builder.append(sql, lastPlaceholder + 1, listEnd + 1);
+        padded = true;
+        i = listEnd + 1;
+      } else {
+        int end = skipToken(sql, i);
+        builder.append(sql, i, end);
+        i = end;
+      }
+    }
+    if (!padded || placeholders != parameterMappings.size()) {
+      return sql;
+    }
+    parameterMappings.clear();
+    parameterMappings.addAll(paddedMappings);
+    return builder.toString();
+  }
+
+  static int paddedSize(int size) {
+    if (size <= 1) {
+      return size;
+    }
+    int paddedSize = Integer.highestOneBit(size - 1) << 1;
+    return paddedSize > MAX_PADDED_IN_CLAUSE_SIZE ? size : paddedSize;
+  }
+
+  private static boolean isInKeyword(String sql, int i) {
+    return i + 2 <= sql.length()
+        && (sql.charAt(i) == 'I' || sql.charAt(i) == 'i')
+        && (sql.charAt(i + 1) == 'N' || sql.charAt(i + 1) == 'n')
+        && (i == 0 || !isIdentifierPart(sql.charAt(i - 1)))
+        && (i + 2 == sql.length() || !isIdentifierPart(sql.charAt(i + 2)));
+  }
+
+  /**
+   * Returns the number of placeholders of a <code>(?, ?, ...)</code> list starting at <code>start</code>,
+   * or 0 if the text is not such a list.
+   */
+  private static int countPlaceholderList(String sql, int start) {
+    int i = skipWhitespaces(sql, start);
+    if (i >= sql.length() || sql.charAt(i) != '(') {
+      return 0;
+    }
+    int count = 0;
+    while (true) {
+      i = skipWhitespaces(sql, i + 1);
+      if (i >= sql.length() || sql.charAt(i) != '?') {
+        return 0;
+      }
+      count++;
+      i = skipWhitespaces(sql, i + 1);
+      if (i >= sql.length()) {
+        return 0;
+      } else if (sql.charAt(i) == ')') {
+        return count;
+      } else if (sql.charAt(i) != ',') {
+        return 0;
+      }
+    }
+  }
+
+  private static int skipWhitespaces(String sql, int i) {
+    while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
+  }
+
+  /**
+   * Splits a single row <code>INSERT ... VALUES (...)</code> statement into the text up to the row,
+   * the parenthesized row and the text after it.
+   * <p>
+   * Returns null if there is no top level <code>VALUES</code> row or if a bind placeholder appears
+   * outside of the row, as the row could then not be repeated on its own.
+   *
+   * @param sql SQL with <code>?</code> placeholders
+   * @return the head, the row and the tail, or null
+   */
+  public static String[] splitInsertRow(String sql) {
+    int valuesEnd = findValues(sql);
+    if (valuesEnd == -1) {
+      return null;
+    }
+    int rowStart = skipWhitespaces(sql, valuesEnd);
+    int rowEnd = findRowEnd(sql, rowStart);
+    if (rowEnd == -1 || hasPlaceholder(sql, 0, rowStart) || hasPlaceholder(sql, rowEnd, sql.length())) {
+      return null;
+    }
+    return new String[] { sql.substring(0, rowStart), sql.substring(rowStart, rowEnd), sql.substring(rowEnd) };
+  }
+
+  /**
+   * Returns the index just after the top level <code>VALUES</code> keyword, or -1.
+   */
+  private static int findValues(String sql) {
+    int depth = 0;
+    int i = 0;
+    while (i < sql.length()) {
+      char c = sql.charAt(i);
+      if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        depth--;
+      } else if (depth == 0 && sql.regionMatches(true, i, VALUES, 0, VALUES.length())
+          && (i == 0 || !isIdentifierPart(sql.charAt(i - 1)))
+          && (i + VALUES.length() == sql.length() || !isIdentifierPart(sql.charAt(i + VALUES.length())))) {
+        return i + VALUES.length();
+      }
+      i = skipToken(sql, i);
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the index just after the parenthesized row starting at <code>start</code>, or -1.
+   */
+  private static int findRowEnd(String sql, int start) {
+    if (start >= sql.length() || sql.charAt(start) != '(') {
+      return -1;
+    }
+    int depth = 0;
+    int i = start;
+    while (i < sql.length()) {
+      char c = sql.charAt(i);
+      if (c == '(') {
+        depth++;
+      } else if (c == ')' && --depth == 0) {
+        return i + 1;
+      }
+      i = skipToken(sql, i);
+    }
+    return -1;
+  }
+
+  private static boolean hasPlaceholder(String sql, int start, int end) {
+    int i = start;
+    while (i < end) {
+      if (sql.charAt(i) == '?') {
+        return true;
+      }
+      i = skipToken(sql, i);
+    }
+    return false;
+  }
+
+  /**
+   * Returns the end of the token starting at <code>start</code>: a whole quoted literal or comment,
+   * otherwise the single character.
+   */
+  static int skipToken(String sql, int start) {
+    char c = sql.charAt(start);
+    if (c == '\'' || c == '"' || c == '`') {
+      int i = start + 1;
+      while (i < sql.length()) {
+        if (sql.charAt(i) == c) {
+          if (i + 1 < sql.length() && sql.charAt(i + 1) == c) {
+            i += 2;
+            continue;
+          }
+          return i + 1;
+        }
+        i++;
+      }
+      return sql.length();
+    }
+    if (c == '-' && sql.startsWith("--", start)) {
+      int end = sql.indexOf('\n', start);
+      return end == -1 ? sql.length() : end + 1;
+    }
+    if (c == '/' && sql.startsWith("/*", start)) {
+      int end = sql.indexOf("*/", start + 2);
+      return end == -1 ? sql.length() : end + 2;
+    }
+    return start + 1;
+  }
+
+}
@@ -43,7 +43,14 @@ public class SqlSourceBuilder extends BaseBuilder {
     ParameterMappingTokenHandler handler = new ParameterMappingTokenHandler(configuration, parameterType, additionalParameters);
     GenericTokenParser parser = new GenericTokenParser("#{", "}", handler);
     String sql = parser.parse(originalSql);
-    return new StaticSqlSource(configuration, sql, handler.getParameterMappings());
+    List<ParameterMapping> parameterMappings = handler.getParameterMappings();
+    if (configuration.isShrinkWhitespacesInSql()) {
+      sql = SqlNormalizer.shrinkWhitespaces(sql);
+    }
+    if (configuration.isInClauseParameterPadding()) {
+      sql = SqlNormalizer.padInClauseParameters(sql, parameterMappings);
+    }
+    return new StaticSqlSource(configuration, sql, parameterMappings);
   }
 
   private static class ParameterMappingTokenHandler extends BaseBuilder implements TokenHandler {
@@ -17,7 +17,15 @@ package org.apache.ibatis.builder.xml;
 
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import javax.sql.DataSource;
 
 import org.apache.ibatis.builder.BaseBuilder;
@@ -42,6 +50,7 @@ import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.defaults.DefaultAsyncExecutor;
 import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.transaction.TransactionFactory;
 import org.apache.ibatis.type.JdbcType;
@@ -242,6 +251,10 @@ public class XMLConfigBuilder extends BaseBuilder {
         configuration.setProxyFactory((ProxyFactory) createInstance(props.getProperty("proxyFactory")));
         configuration.setLazyLoadingEnabled(booleanValueOf(props.getProperty("lazyLoadingEnabled"), false));
         configuration.setAggressiveLazyLoading(booleanValueOf(props.getProperty("aggressiveLazyLoading"), false));
+        configuration.setBatchLazyLoading(booleanValueOf(props.getProperty("batchLazyLoading"), false));
+        configuration.setCompileRowMappers(booleanValueOf(props.getProperty("compileRowMappers"), false));
+        configuration.setWarmUpReflectors(booleanValueOf(props.getProperty("warmUpReflectors"), false));
+        configuration.setParallelMapperLoading(booleanValueOf(props.getProperty("parallelMapperLoading"), false));
         configuration.setMultipleResultSetsEnabled(booleanValueOf(props.getProperty("multipleResultSetsEnabled"), true));
         configuration.setUseColumnLabel(booleanValueOf(props.getProperty("useColumnLabel"), true));
         configuration.setUseGeneratedKeys(booleanValueOf(props.getProperty("useGeneratedKeys"), false));
@@ -261,6 +274,18 @@ public class XMLConfigBuilder extends BaseBuilder {
         configuration.setCallSettersOnNulls(booleanValueOf(props.getProperty("callSettersOnNulls"), false));
         configuration.setUseActualParamName(booleanValueOf(props.getProperty("useActualParamName"), true));
         configuration.setReturnInstanceForEmptyRow(booleanValueOf(props.getProperty("returnInstanceForEmptyRow"), false));
+        configuration.setShrinkWhitespacesInSql(booleanValueOf(props.getProperty("shrinkWhitespacesInSql"), false));
+        configuration.setInClauseParameterPadding(booleanValueOf(props.getProperty("inClauseParameterPadding"), false));
+        configuration.setBatchRewriteInserts(booleanValueOf(props.getProperty("batchRewriteInserts"), false));
+        configuration.setBatchRewriteMaxRows(integerValueOf(props.getProperty("batchRewriteMaxRows"), 100));
+        configuration.setBatchRewriteMaxParameters(integerValueOf(props.getProperty("batchRewriteMaxParameters"), 2000));
+        configuration.setBatchSize(integerValueOf(props.getProperty("batchSize"), 0));
+        configuration.setBatchMaxBytes(integerValueOf(props.getProperty("batchMaxBytes"), 0));
+        configuration.setBatchGroupStatements(booleanValueOf(props.getProperty("batchGroupStatements"), false));
+        configuration.setBatchStatementOrder(stringListValueOf(props.getProperty("batchStatementOrder")));
+        configuration.setAsyncExecutor((Executor) createInstance(props.getProperty("asyncExecutor")));
+        configuration.setNestedQueryParallelism(integerValueOf(props.getProperty("nestedQueryParallelism"), 1));
+        configuration.setNestedQueryBatchSize(integerValueOf(props.getProperty("nestedQueryBatchSize"), 1000));
         configuration.setLogPrefix(props.getProperty("logPrefix"));
         @SuppressWarnings("unchecked")
         Class<? extends Log> logImpl = (Class<? extends Log>) resolveClass(props.getProperty("logImpl"));
@@ -367,7 +392,11 @@ public class XMLConfigBuilder extends BaseBuilder {
 
     private void mapperElement(XNode parent) throws Exception {
         if (parent != null) {
-            for (XNode child : parent.getChildren()) {
+            List<XNode> children = parent.getChildren();
+            List<FutureTask<XPathParser>> mapperDocuments = configuration.isParallelMapperLoading() ? parseMapperDocuments(children) : null;
+            XMLMapperBuilder mapperParser = null;
+            for (int i = 0; i < children.size(); i++) {
+                XNode child = children.get(i);
                 if ("package".equals(child.getName())) {
                     String mapperPackage = child.getStringAttribute("name");
                     configuration.addMappers(mapperPackage);
@@ -377,14 +406,22 @@ public class XMLConfigBuilder extends BaseBuilder {
                     String mapperClass = child.getStringAttribute("class");
                     if (resource != null && url == null && mapperClass == null) {
                         ErrorContext.instance().resource(resource);
-                        InputStream inputStream = Resources.getResourceAsStream(resource);
-                        XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
-                        mapperParser.parse();
+                        if (mapperDocuments != null) {
+                            mapperParser = parseMapper(mapperDocuments.get(i), resource);
+                        } else {
+                            InputStream inputStream = Resources.getResourceAsStream(resource);
+                            mapperParser = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
+                            mapperParser.parse();
+                        }
                     } else if (resource == null && url != null && mapperClass == null) {
                         ErrorContext.instance().resource(url);
-                        InputStream inputStream = Resources.getUrlAsStream(url);
-                        XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, url, configuration.getSqlFragments());
-                        mapperParser.parse();
+                        if (mapperDocuments != null) {
+                            mapperParser = parseMapper(mapperDocuments.get(i), url);
+                        } else {
+                            InputStream inputStream = Resources.getUrlAsStream(url);
+                            mapperParser = new XMLMapperBuilder(inputStream, configuration, url, configuration.getSqlFragments());
+                            mapperParser.parse();
+                        }
                     } else if (resource == null && url == null && mapperClass != null) {
                         Class<?> mapperInterface = Resources.classForName(mapperClass);
                         configuration.addMapper(mapperInterface);
@@ -393,7 +430,70 @@ public class XMLConfigBuilder extends BaseBuilder {
                     }
                 }
             }
+            if (mapperDocuments != null && mapperParser != null) {
+                mapperParser.parsePendingElements();
+            }
+        }
+    }
+
+    /**
+     * Starts parsing the documents of the <code>resource</code> and <code>url</code> mappers on the async executor.
+     * The returned list holds the document of each child, or null for the other children.
+     */
+    private List<FutureTask<XPathParser>> parseMapperDocuments(List<XNode> children) {
+        List<FutureTask<XPathParser>> documents = new ArrayList<FutureTask<XPathParser>>(children.size());
+        final Queue<FutureTask<XPathParser>> pending = new ConcurrentLinkedQueue<FutureTask<XPathParser>>();
+        for (XNode child : children) {
+            final String resource = child.getStringAttribute("resource");
+            final String url = child.getStringAttribute("url");
+            FutureTask<XPathParser> document = null;
+            if (!"package".equals(child.getName()) && (resource == null) != (url == null)
+                    && child.getStringAttribute("class") == null) {
+                document = new FutureTask<XPathParser>(new Callable<XPathParser>() {
+                    @Override
+                    public XPathParser call() throws Exception {
+                        InputStream inputStream = resource != null ? Resources.getResourceAsStream(resource) : Resources.getUrlAsStream(url);
+                        return new XPathParser(inputStream, true, configuration.getVariables(), new XMLMapperEntityResolver());
+                    }
+                });
+                pending.add(document);
+            }
+            documents.add(document);
+        }
+        int workers = Math.min(Runtime.getRuntime().availableProcessors(), pending.size());
+        Executor executor = DefaultAsyncExecutor.of(configuration);
+        for (int i = 0; i < workers; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    FutureTask<XPathParser> document;
+                    while ((document = pending.poll()) != null) {
+                        document.run();
+                    }
+                }
+            });
+        }
+        return documents;
+    }
+
+    /**
+     * Adds a mapper parsed on the async executor, parsing it on this thread if no worker has started it yet.
+     * Incomplete elements are resolved once all mappers have been added.
+     */
+    private XMLMapperBuilder parseMapper(FutureTask<XPathParser> document, String location) throws Exception {
+        document.run();
+        XPathParser mapperDocument;
+        try {
+            mapperDocument = document.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw (Exception) e.getCause();
         }
+        XMLMapperBuilder mapperParser = new XMLMapperBuilder(mapperDocument, configuration, location, configuration.getSqlFragments());
+        mapperParser.parseMapper();
+        return mapperParser;
     }
 
     private boolean isSpecifiedEnvironment(String id) {
@@ -79,7 +79,7 @@ public class XMLMapperBuilder extends BaseBuilder {
         configuration, resource, sqlFragments);
   }
 
-  private XMLMapperBuilder(XPathParser parser, Configuration configuration, String resource, Map<String, XNode> sqlFragments) {
+  XMLMapperBuilder(XPathParser parser, Configuration configuration, String resource, Map<String, XNode> sqlFragments) {
     super(configuration);
     this.builderAssistant = new MapperBuilderAssistant(configuration, resource);
     this.parser = parser;
@@ -88,15 +88,45 @@ public class XMLMapperBuilder extends BaseBuilder {
   }
 
   public void parse() {
+    parseMapper();
+
+    parsePendingResultMaps();
+    parsePendingCacheRefs();
+    parsePendingStatements();
+  }
+
+  /**
+   * Parses the mapper without retrying the incomplete elements of the configuration.
+   */
+  void parseMapper() {
     if (!configuration.isResourceLoaded(resource)) {
       configurationElement(parser.evalNode("/mapper"));
       configuration.addLoadedResource(resource);
       bindMapperForNamespace();
     }
+  }
+
+  /**
+   * Retries the incomplete elements of the configuration until a pass resolves none of them,
+   * so elements that wait for each other are resolved whatever their order.
+   */
+  void parsePendingElements() {
+    int incomplete = countIncompleteElements();
+    while (incomplete > 0) {
+      parsePendingResultMaps();
+      parsePendingCacheRefs();
+      parsePendingStatements();
+      int remaining = countIncompleteElements();
+      if (remaining == incomplete) {
+        return;
+      }
+      incomplete = remaining;
+    }
+  }
 
-    parsePendingResultMaps();
-    parsePendingCacheRefs();
-    parsePendingStatements();
+  private int countIncompleteElements() {
+    return configuration.getIncompleteResultMaps().size() + configuration.getIncompleteCacheRefs().size()
+        + configuration.getIncompleteStatements().size();
   }
 
   public XNode getSqlFragment(String refid) {
@@ -375,12 +405,13 @@ public class XMLMapperBuilder extends BaseBuilder {
     String typeHandler = context.getStringAttribute("typeHandler");
     String resultSet = context.getStringAttribute("resultSet");
     String foreignColumn = context.getStringAttribute("foreignColumn");
+    String batchKey = context.getStringAttribute("batchKey");
     boolean lazy = "lazy".equals(context.getStringAttribute("fetchType", configuration.isLazyLoadingEnabled() ? "lazy" : "eager"));
     Class<?> javaTypeClass = resolveClass(javaType);
     @SuppressWarnings("unchecked")
     Class<? extends TypeHandler<?>> typeHandlerClass = (Class<? extends TypeHandler<?>>) resolveClass(typeHandler);
     JdbcType jdbcTypeEnum = resolveJdbcType(jdbcType);
-    return builderAssistant.buildResultMapping(resultType, property, column, javaTypeClass, jdbcTypeEnum, nestedSelect, nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy);
+    return builderAssistant.buildResultMapping(resultType, property, column, javaTypeClass, jdbcTypeEnum, nestedSelect, nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy, batchKey);
   }
   
   private String processNestedResultMappings(XNode context, List<ResultMapping> resultMappings) throws Exception {
@@ -40,6 +40,7 @@ class PooledConnection implements InvocationHandler {
   private long lastUsedTimestamp;
   private int connectionTypeCode;
   private boolean valid;
+  private PooledStatementCache statementCache;
 
   /**
    * Constructor for SimplePooledConnection that uses the Connection and PooledDataSource passed in
@@ -118,6 +119,24 @@ class PooledConnection implements InvocationHandler {
     this.connectionTypeCode = connectionTypeCode;
   }
 
+  /**
+   * Getter for the prepared statement cache of the real connection
+   *
+   * @return The cache, or null if statements are not cached
+   */
+  public PooledStatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /**
+   * Setter for the prepared statement cache of the real connection
+   *
+   * @param statementCache - the cache
+   */
+  public void setStatementCache(PooledStatementCache statementCache) {
+    this.statementCache = statementCache;
+  }
+
   /**
    * Getter for the time that the connection was created
    *
@@ -242,6 +261,9 @@ class PooledConnection implements InvocationHandler {
           // throw an SQLException instead of a Runtime
           checkConnection();
         }
+        if (statementCache != null && PooledStatementCache.isCacheable(method)) {
+          return statementCache.prepare(proxyConnection, method, args);
+        }
         return method.invoke(realConnection, args);
       } catch (Throwable t) {
         throw ExceptionUtil.unwrapThrowable(t);
@@ -84,6 +84,11 @@ public class PooledDataSource implements DataSource {
      */
     protected int poolPingConnectionsNotUsedFor;
 
+    /**
+     * 每个物理连接缓存的PreparedStatement数量，连接归还后缓存的语句可被下一个会话复用（默认为0，即不缓存）
+     */
+    protected int poolPreparedStatementCacheSize;
+
     private int expectedConnectionTypeCode;
 
     public PooledDataSource() {
@@ -263,6 +268,16 @@ public class PooledDataSource implements DataSource {
         forceCloseAll();
     }
 
+    /**
+     * The number of prepared statements cached per physical connection, 0 disables the cache.
+     *
+     * @param poolPreparedStatementCacheSize The size of the cache
+     */
+    public void setPoolPreparedStatementCacheSize(int poolPreparedStatementCacheSize) {
+        this.poolPreparedStatementCacheSize = poolPreparedStatementCacheSize;
+        forceCloseAll();
+    }
+
     public String getDriver() {
         return dataSource.getDriver();
     }
@@ -323,6 +338,10 @@ public class PooledDataSource implements DataSource {
         return poolPingConnectionsNotUsedFor;
     }
 
+    public int getPoolPreparedStatementCacheSize() {
+        return poolPreparedStatementCacheSize;
+    }
+
     /**
      * 关闭连接池中所有连接，包括活动与空闲的连接
      * 被垃圾收集器回收之前释放连接池中所有的数据库连接
@@ -411,6 +430,8 @@ public class PooledDataSource implements DataSource {
                     newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
                     //最后活动时间戳
                     newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
+                    //语句缓存随物理连接转移
+                    newConn.setStatementCache(conn.getStatementCache());
                     //将原有连接对象置为无效
                     conn.invalidate();
                     if (log.isDebugEnabled()) {
@@ -477,6 +498,9 @@ public class PooledDataSource implements DataSource {
                     if (state.activeConnections.size() < poolMaximumActiveConnections) {
                         // 创建一个新的连接对象
                         conn = new PooledConnection(dataSource.getConnection(), this);
+                        if (poolPreparedStatementCacheSize > 0) {
+                            conn.setStatementCache(new PooledStatementCache(conn.getRealConnection(), poolPreparedStatementCacheSize));
+                        }
                         if (log.isDebugEnabled()) {
                             log.debug("Created connection " + conn.getRealHashCode() + ".");
                         }
@@ -505,6 +529,7 @@ public class PooledDataSource implements DataSource {
                             conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this);
                             conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
                             conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
+                            conn.setStatementCache(oldestActiveConnection.getStatementCache());
                             //移除旧的连接
                             oldestActiveConnection.invalidate();
                             if (log.isDebugEnabled()) {
@@ -0,0 +1,126 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * A checked out statement of a {@link PooledStatementCache}. Like {@link PooledConnection}, a new proxy is
+ * created on every checkout so that a statement that was closed can not be used anymore.
+ */
+class PooledStatement implements InvocationHandler {
+
+  private static final String CLOSE = "close";
+  private static final String IS_CLOSED = "isClosed";
+  private static final String GET_CONNECTION = "getConnection";
+  private static final String SET_ESCAPE_PROCESSING = "setEscapeProcessing";
+
+  private final PooledStatementCache cache;
+  private final PooledStatementCache.CachedStatement entry;
+  private final Connection proxyConnection;
+  private final PreparedStatement proxyStatement;
+  // closing the real statement would close them, returning it to the cache does not
+  private final List<ResultSet> resultSets = new ArrayList<ResultSet>();
+  private boolean closed;
+
+  public PooledStatement(PooledStatementCache cache, PooledStatementCache.CachedStatement entry, Connection proxyConnection) {
+    this.cache = cache;
+    this.entry = entry;
+    this.proxyConnection = proxyConnection;
+    PreparedStatement statement = entry.getStatement();
+    Class<?>[] ifaces = statement instanceof CallableStatement
+        ? new Class<?>[] { CallableStatement.class } : new Class<?>[] { PreparedStatement.class };
+    this.proxyStatement = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), ifaces, this);
+  }
+
+  public PreparedStatement getProxyStatement() {
+    return proxyStatement;
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    String methodName = method.getName();
+    if (CLOSE.equals(methodName) && (args == null || args.length == 0)) {
+      if (!closed) {
+        closed = true;
+        try {
+          closeResultSets();
+        } finally {
+          cache.release(entry);
+        }
+      }
+      return null;
+    } else if (IS_CLOSED.equals(methodName) && (args == null || args.length == 0)) {
+      return closed || entry.getStatement().isClosed();
+    } else if (GET_CONNECTION.equals(methodName) && (args == null || args.length == 0)) {
+      checkStatement();
+      return proxyConnection;
+    }
+    try {
+      if (!Object.class.equals(method.getDeclaringClass())) {
+        checkStatement();
+      }
+      if (SET_ESCAPE_PROCESSING.equals(methodName)) {
+        entry.escapeProcessingChanged();
+      }
+      Object result = method.invoke(entry.getStatement(), args);
+      if (result instanceof ResultSet) {
+        addResultSet((ResultSet) result);
+      }
+      return result;
+    } catch (Throwable t) {
+      throw ExceptionUtil.unwrapThrowable(t);
+    }
+  }
+
+  private void addResultSet(ResultSet resultSet) throws SQLException {
+    // a statement reused for many executions keeps only the result sets that are still open
+    for (Iterator<ResultSet> iterator = resultSets.iterator(); iterator.hasNext();) {
+      if (iterator.next().isClosed()) {
+        iterator.remove();
+      }
+    }
+    resultSets.add(resultSet);
+  }
+
+  private void closeResultSets() throws SQLException {
+    for (ResultSet resultSet : resultSets) {
+      if (!resultSet.isClosed()) {
+        resultSet.close();
+      }
+    }
+    resultSets.clear();
+  }
+
+  private void checkStatement() throws SQLException {
+    if (closed) {
+      throw new SQLException("Error accessing PooledStatement. Statement is closed.");
+    }
+  }
+
+}
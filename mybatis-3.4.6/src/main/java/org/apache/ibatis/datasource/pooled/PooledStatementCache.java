@@ -0,0 +1,229 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * LRU cache of the prepared statements of one physical connection.
+ * <p>
+ * The cache is handed over to every {@link PooledConnection} that wraps the same real connection,
+ * so statements prepared by one session are reused by the next session that checks the connection out.
+ * Closing a statement returned by the cache only returns it to the cache.
+ */
+class PooledStatementCache {
+
+  private static final Log log = LogFactory.getLog(PooledStatementCache.class);
+
+  private final Connection realConnection;
+  private final int size;
+  private final Map<StatementKey, CachedStatement> statements;
+
+  public PooledStatementCache(Connection realConnection, int size) {
+    this.realConnection = realConnection;
+    this.size = size;
+    this.statements = new LinkedHashMap<StatementKey, CachedStatement>(size, .75F, true) {
+      private static final long serialVersionUID = 4267176411845948333L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<StatementKey, CachedStatement> eldest) {
+        boolean tooBig = size() > PooledStatementCache.this.size;
+        if (tooBig) {
+          discard(eldest.getValue());
+        }
+        return tooBig;
+      }
+    };
+  }
+
+  public static boolean isCacheable(Method method) {
+    String name = method.getName();
+    return ("prepareStatement".equals(name) || "prepareCall".equals(name))
+        && Connection.class.equals(method.getDeclaringClass());
+  }
+
+  /**
+   * Returns a cached statement for the <code>prepareStatement</code>/<code>prepareCall</code> call,
+   * preparing and caching a new one on a miss. A statement that is still open is never handed out twice;
+   * a second request for the same SQL gets an ordinary, uncached statement.
+   */
+  public synchronized PreparedStatement prepare(Connection proxyConnection, Method method, Object[] args) throws SQLException {
+    StatementKey key = new StatementKey(method.getName(), args);
+    CachedStatement entry = statements.get(key);
+    if (entry == null) {
+      entry = new CachedStatement(key, (PreparedStatement) invoke(method, args));
+      statements.put(key, entry);
+      if (log.isDebugEnabled()) {
+        log.debug("Cached prepared statement " + entry.statement.hashCode() + " of connection " + realConnection.hashCode() + ".");
+      }
+    } else if (entry.inUse) {
+      return (PreparedStatement) invoke(method, args);
+    }
+    entry.inUse = true;
+    return new PooledStatement(this, entry, proxyConnection).getProxyStatement();
+  }
+
+  synchronized void release(CachedStatement entry) throws SQLException {
+    entry.inUse = false;
+    if (entry.discarded) {
+      entry.statement.close();
+      return;
+    }
+    try {
+      entry.reset();
+    } catch (SQLException e) {
+      statements.remove(entry.key);
+      entry.discarded = true;
+      entry.statement.close();
+    }
+  }
+
+  private void discard(CachedStatement entry) {
+    entry.discarded = true;
+    if (!entry.inUse) {
+      try {
+        entry.statement.close();
+      } catch (SQLException e) {
+        // ignore
+      }
+    }
+  }
+
+  private Object invoke(Method method, Object[] args) throws SQLException {
+    try {
+      return method.invoke(realConnection, args);
+    } catch (Exception e) {
+      Throwable cause = ExceptionUtil.unwrapThrowable(e);
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      }
+      throw new SQLException("Error preparing statement.  Cause: " + cause, cause);
+    }
+  }
+
+  static class CachedStatement {
+    private final StatementKey key;
+    private final PreparedStatement statement;
+    private final int queryTimeout;
+    private final int fetchSize;
+    private final int maxRows;
+    private final int fetchDirection;
+    private final int maxFieldSize;
+    private final boolean poolable;
+    private boolean escapeProcessingChanged;
+    private boolean inUse;
+    private boolean discarded;
+
+    CachedStatement(StatementKey key, PreparedStatement statement) throws SQLException {
+      this.key = key;
+      this.statement = statement;
+      this.queryTimeout = statement.getQueryTimeout();
+      this.fetchSize = statement.getFetchSize();
+      this.maxRows = statement.getMaxRows();
+      this.fetchDirection = statement.getFetchDirection();
+      this.maxFieldSize = statement.getMaxFieldSize();
+      this.poolable = statement.isPoolable();
+    }
+
+    PreparedStatement getStatement() {
+      return statement;
+    }
+
+    /**
+     * Escape processing can not be read back, a statement on which it was set gets the JDBC default again.
+     */
+    void escapeProcessingChanged() {
+      escapeProcessingChanged = true;
+    }
+
+    /**
+     * Undoes what a previous user may have changed, the next user expects a freshly prepared statement.
+     * Like closing the statement would, this closes its current result set.
+     */
+    void reset() throws SQLException {
+      ResultSet resultSet = statement.getResultSet();
+      if (resultSet != null) {
+        resultSet.close();
+      }
+      statement.clearParameters();
+      statement.clearBatch();
+      statement.clearWarnings();
+      if (statement.getQueryTimeout() != queryTimeout) {
+        statement.setQueryTimeout(queryTimeout);
+      }
+      if (statement.getFetchSize() != fetchSize) {
+        statement.setFetchSize(fetchSize);
+      }
+      if (statement.getMaxRows() != maxRows) {
+        statement.setMaxRows(maxRows);
+      }
+      if (statement.getFetchDirection() != fetchDirection) {
+        statement.setFetchDirection(fetchDirection);
+      }
+      if (statement.getMaxFieldSize() != maxFieldSize) {
+        statement.setMaxFieldSize(maxFieldSize);
+      }
+      if (statement.isPoolable() != poolable) {
+        statement.setPoolable(poolable);
+      }
+      if (escapeProcessingChanged) {
+        statement.setEscapeProcessing(true);
+        escapeProcessingChanged = false;
+      }
+    }
+  }
+
+  static class StatementKey {
+    private final String methodName;
+    private final Object[] args;
+    private final int hashCode;
+
+    StatementKey(String methodName, Object[] args) {
+      this.methodName = methodName;
+      this.args = args == null ? new Object[0] : args.clone();
+      this.hashCode = 31 * methodName.hashCode() + Arrays.deepHashCode(this.args);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof StatementKey)) {
+        return false;
+      }
+      StatementKey other = (StatementKey) obj;
+      return hashCode == other.hashCode && methodName.equals(other.methodName) && Arrays.deepEquals(args, other.args);
+    }
+  }
+
+}
@@ -21,8 +21,12 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
@@ -30,6 +34,10 @@ import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -44,8 +52,13 @@ public class BatchExecutor extends BaseExecutor {
 
   private final List<Statement> statementList = new ArrayList<Statement>();
   private final List<BatchResult> batchResultList = new ArrayList<BatchResult>();
+  private final List<MultiRowInsert> multiRowInsertList = new ArrayList<MultiRowInsert>();
   private String currentSql;
   private MappedStatement currentStatement;
+  private final Map<CacheKey, Integer> statementIndexes = new HashMap<CacheKey, Integer>();
+  private final List<BatchResult> flushedResults = new ArrayList<BatchResult>();
+  private int pendingRows;
+  private long pendingBytes;
 
   public BatchExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
@@ -58,27 +71,168 @@ public class BatchExecutor extends BaseExecutor {
     final BoundSql boundSql = handler.getBoundSql();
     final String sql = boundSql.getSql();
     final Statement stmt;
-    if (sql.equals(currentSql) && ms.equals(currentStatement)) {
-      int last = statementList.size() - 1;
-      stmt = statementList.get(last);
+    final int index = indexOfBatch(configuration, ms, sql);
+    if (index != -1) {
+      MultiRowInsert multiRowInsert = multiRowInsertList.get(index);
+      if (multiRowInsert != null) {
+        multiRowInsert.addRow(handler, getConnection(ms.getStatementLog()));
+        batchResultList.get(index).addParameterObject(parameterObject);
+        return afterBatch(configuration, boundSql);
+      }
+      stmt = statementList.get(index);
       applyTransactionTimeout(stmt);
      handler.parameterize(stmt);//fix Issues 322
-      BatchResult batchResult = batchResultList.get(last);
+      BatchResult batchResult = batchResultList.get(index);
       batchResult.addParameterObject(parameterObject);
     } else {
+      MultiRowInsert multiRowInsert = configuration.isBatchRewriteInserts() ? MultiRowInsert.parse(this, ms, sql) : null;
+      if (multiRowInsert != null) {
+        // the rows are bound now and sent as multi-row inserts when the batch is flushed
+        multiRowInsert.addRow(handler, getConnection(ms.getStatementLog()));
+        currentSql = sql;
+        currentStatement = ms;
+        addStatementIndex(ms, sql);
+        statementList.add(null);
+        batchResultList.add(new BatchResult(ms, sql, parameterObject));
+        multiRowInsertList.add(multiRowInsert);
+        return afterBatch(configuration, boundSql);
+      }
       Connection connection = getConnection(ms.getStatementLog());
       stmt = handler.prepare(connection, transaction.getTimeout());
       handler.parameterize(stmt);    //fix Issues 322
       currentSql = sql;
       currentStatement = ms;
+      addStatementIndex(ms, sql);
       statementList.add(stmt);
       batchResultList.add(new BatchResult(ms, sql, parameterObject));
+      multiRowInsertList.add(null);
     }
   // handler.parameterize(stmt);
     handler.batch(stmt);
+    return afterBatch(configuration, boundSql);
+  }
+
+  /**
+   * Returns the index of the pending batch the statement can be added to, or -1 if a new one is needed.
+   * By default only the last batch is reused. With <code>batchGroupStatements</code> an insert is added to any
+   * batch of the same insert since the last statement that is not an insert; any other statement ends the groups,
+   * so it never runs before or after a statement it was batched behind or ahead of.
+   */
+  private int indexOfBatch(Configuration configuration, MappedStatement ms, String sql) {
+    if (configuration.isBatchGroupStatements()) {
+      if (ms.getSqlCommandType() == SqlCommandType.INSERT) {
+        Integer index = statementIndexes.get(batchKey(ms, sql));
+        return index == null ? -1 : index;
+      }
+      statementIndexes.clear();
+    }
+    return sql.equals(currentSql) && ms.equals(currentStatement) ? statementList.size() - 1 : -1;
+  }
+
+  private void addStatementIndex(MappedStatement ms, String sql) {
+    if (ms.getSqlCommandType() == SqlCommandType.INSERT) {
+      statementIndexes.put(batchKey(ms, sql), statementList.size());
+    }
+  }
+
+  private CacheKey batchKey(MappedStatement ms, String sql) {
+    CacheKey key = new CacheKey();
+    key.update(ms);
+    key.update(sql);
+    return key;
+  }
+
+  /**
+   * Returns the indexes of the pending batches in execution order: the <code>batchStatementOrder</code>
+   * rank of their statement first, then the order they were created.
+   */
+  private List<Integer> executionOrder() {
+    final List<String> statementOrder = configuration.getBatchStatementOrder();
+    List<Integer> order = new ArrayList<Integer>(statementList.size());
+    for (int i = 0, n = statementList.size(); i < n; i++) {
+      order.add(i);
+    }
+    if (statementOrder.isEmpty() || order.size() < 2) {
+      return order;
+    }
+    final int[] ranks = new int[order.size()];
+    for (int i = 0; i < ranks.length; i++) {
+      ranks[i] = rankOf(batchResultList.get(i).getMappedStatement().getId(), statementOrder);
+    }
+    Collections.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer o1, Integer o2) {
+        return ranks[o1] < ranks[o2] ? -1 : (ranks[o1] == ranks[o2] ? 0 : 1);
+      }
+    });
+    return order;
+  }
+
+  private int rankOf(String statementId, List<String> statementOrder) {
+    for (int i = 0; i < statementOrder.size(); i++) {
+      String element = statementOrder.get(i);
+      if (statementId.equals(element) || statementId.startsWith(element + ".")) {
+        return i;
+      }
+    }
+    return statementOrder.size();
+  }
+
+  /**
+   * Executes the pending batch early once it holds <code>batchSize</code> rows or an estimated
+   * <code>batchMaxBytes</code> of parameter values. The results are returned by the next
+   * {@link #flushStatements()}, without their parameter objects.
+   */
+  private int afterBatch(Configuration configuration, BoundSql boundSql) throws SQLException {
+    int batchSize = configuration.getBatchSize();
+    int batchMaxBytes = configuration.getBatchMaxBytes();
+    pendingRows++;
+    if (batchMaxBytes > 0) {
+      pendingBytes += estimateBytes(configuration, boundSql);
+    }
+    if ((batchSize > 0 && pendingRows >= batchSize) || (batchMaxBytes > 0 && pendingBytes >= batchMaxBytes)) {
+      List<BatchResult> results = doFlushStatements(false);
+      for (BatchResult result : results) {
+        result.releaseParameterObjects();
+      }
+      flushedResults.addAll(results);
+    }
     return BATCH_UPDATE_RETURN_VALUE;
   }
 
+  private long estimateBytes(Configuration configuration, BoundSql boundSql) {
+    Object parameterObject = boundSql.getParameterObject();
+    MetaObject metaObject = null;
+    long bytes = 0;
+    for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+      if (parameterMapping.getMode() == ParameterMode.OUT) {
+        continue;
+      }
+      Object value;
+      String propertyName = parameterMapping.getProperty();
+      if (boundSql.hasAdditionalParameter(propertyName)) {
+        value = boundSql.getAdditionalParameter(propertyName);
+      } else if (parameterObject == null) {
+        value = null;
+      } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+        value = parameterObject;
+      } else {
+        if (metaObject == null) {
+          metaObject = configuration.newMetaObject(parameterObject);
+        }
+        value = metaObject.getValue(propertyName);
+      }
+      if (value instanceof CharSequence) {
+        bytes += 2L * ((CharSequence) value).length();
+      } else if (value instanceof byte[]) {
+        bytes += ((byte[]) value).length;
+      } else {
+        bytes += 8;
+      }
+    }
+    return bytes;
+  }
+
   @Override
   public <E> List<E> doQuery(MappedStatement ms, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql)
       throws SQLException {
@@ -110,29 +264,37 @@ public class BatchExecutor extends BaseExecutor {
   @Override
   public List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
     try {
-      List<BatchResult> results = new ArrayList<BatchResult>();
+      List<BatchResult> results = new ArrayList<BatchResult>(flushedResults);
       if (isRollback) {
         return Collections.emptyList();
       }
-      for (int i = 0, n = statementList.size(); i < n; i++) {
-        Statement stmt = statementList.get(i);
-        applyTransactionTimeout(stmt);
-        BatchResult batchResult = batchResultList.get(i);
+      List<Integer> executionOrder = executionOrder();
+      for (int i = 0, n = executionOrder.size(); i < n; i++) {
+        int index = executionOrder.get(i);
+        Statement stmt = statementList.get(index);
+        BatchResult batchResult = batchResultList.get(index);
+        MultiRowInsert multiRowInsert = multiRowInsertList.get(index);
         try {
-          batchResult.setUpdateCounts(stmt.executeBatch());
           MappedStatement ms = batchResult.getMappedStatement();
-          List<Object> parameterObjects = batchResult.getParameterObjects();
-          KeyGenerator keyGenerator = ms.getKeyGenerator();
-          if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
-            Jdbc3KeyGenerator jdbc3KeyGenerator = (Jdbc3KeyGenerator) keyGenerator;
-            jdbc3KeyGenerator.processBatch(ms, stmt, parameterObjects);
-          } else if (!NoKeyGenerator.class.equals(keyGenerator.getClass())) { //issue #141
-            for (Object parameter : parameterObjects) {
-              keyGenerator.processAfter(this, ms, stmt, parameter);
+          if (multiRowInsert != null) {
+            batchResult.setUpdateCounts(multiRowInsert.execute(getConnection(ms.getStatementLog()),
+                transaction.getTimeout(), batchResult.getParameterObjects()));
+          } else {
+            applyTransactionTimeout(stmt);
+            batchResult.setUpdateCounts(stmt.executeBatch());
+            List<Object> parameterObjects = batchResult.getParameterObjects();
+            KeyGenerator keyGenerator = ms.getKeyGenerator();
+            if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
+              Jdbc3KeyGenerator jdbc3KeyGenerator = (Jdbc3KeyGenerator) keyGenerator;
+              jdbc3KeyGenerator.processBatch(ms, stmt, parameterObjects);
+            } else if (!NoKeyGenerator.class.equals(keyGenerator.getClass())) { //issue #141
+              for (Object parameter : parameterObjects) {
+                keyGenerator.processAfter(this, ms, stmt, parameter);
+              }
             }
+            // Close statement to close cursor #1109
+            closeStatement(stmt);
           }
-          // Close statement to close cursor #1109
-          closeStatement(stmt);
         } catch (BatchUpdateException e) {
           StringBuilder message = new StringBuilder();
           message.append(batchResult.getMappedStatement().getId())
@@ -157,6 +319,11 @@ public class BatchExecutor extends BaseExecutor {
       currentSql = null;
       statementList.clear();
       batchResultList.clear();
+      multiRowInsertList.clear();
+      statementIndexes.clear();
+      flushedResults.clear();
+      pendingRows = 0;
+      pendingBytes = 0;
     }
   }
 
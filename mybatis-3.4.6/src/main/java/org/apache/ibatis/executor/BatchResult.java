@@ -72,4 +72,11 @@ public class BatchResult {
     this.parameterObjects.add(parameterObject);
   }
 
+  /**
+   * Drops the references to the parameter objects of a batch that has already been executed.
+   */
+  void releaseParameterObjects() {
+    this.parameterObjects.clear();
+  }
+
 }
@@ -0,0 +1,256 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.builder.SqlNormalizer;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Pending rows of a batched single row <code>INSERT ... VALUES (...)</code> statement.
+ * <p>
+ * Instead of one <code>addBatch()</code> per row, the rows are sent as multi-row
+ * <code>INSERT ... VALUES (...), (...)</code> statements of at most
+ * {@link Configuration#getBatchRewriteMaxRows()} rows and {@link Configuration#getBatchRewriteMaxParameters()}
+ * bind parameters. Each row is still bound by its own {@link StatementHandler} when it is added, so parameter
+ * handlers and plugins see the same calls as for a plain batch. The bound values are recorded and replayed
+ * into the row's slot of the multi-row statement when the batch is executed.
+ */
+class MultiRowInsert {
+
+  private final Executor executor;
+  private final MappedStatement mappedStatement;
+  private final String head;
+  private final String row;
+  private final String tail;
+  private final List<RowParameters> rows = new ArrayList<RowParameters>();
+  private BoundSql boundSql;
+
+  private MultiRowInsert(Executor executor, MappedStatement mappedStatement, String head, String row, String tail) {
+    this.executor = executor;
+    this.mappedStatement = mappedStatement;
+    this.head = head;
+    this.row = row;
+    this.tail = tail;
+  }
+
+  /**
+   * Returns a new instance if the statement is a prepared single row insert that can be rewritten, null otherwise.
+   */
+  public static MultiRowInsert parse(Executor executor, MappedStatement ms, String sql) {
+    KeyGenerator keyGenerator = ms.getKeyGenerator();
+    if (ms.getSqlCommandType() != SqlCommandType.INSERT
+        || ms.getStatementType() != StatementType.PREPARED
+        || !(keyGenerator instanceof NoKeyGenerator || Jdbc3KeyGenerator.class.equals(keyGenerator.getClass()))) {
+      return null;
+    }
+    String[] parts = SqlNormalizer.splitInsertRow(sql);
+    if (parts == null) {
+      return null;
+    }
+    String tail = parts[2].trim();
+    if (!tail.isEmpty() && !";".equals(tail)) {
+      return null;
+    }
+    return new MultiRowInsert(executor, ms, parts[0], parts[1], tail);
+  }
+
+  /**
+   * Binds the parameters of a row now, so later changes to its parameter object do not affect the row.
+   *
+   * @param handler the statement handler of the row
+   * @param connection the connection, handed to type handlers that need one to create values
+   */
+  public void addRow(StatementHandler handler, Connection connection) throws SQLException {
+    RowParameters parameters = new RowParameters(connection);
+    handler.parameterize(parameters.getRecordingStatement());
+    if (boundSql == null) {
+      boundSql = handler.getBoundSql();
+    }
+    rows.add(parameters);
+  }
+
+  /**
+   * Executes all pending rows.
+   *
+   * @param connection the connection
+   * @param transactionTimeout the transaction timeout
+   * @param parameterObjects the parameter object of each row, used to assign generated keys
+   * @return one update count per row
+   * @throws BatchUpdateException if a statement fails, holding the update counts of the rows sent before
+   */
+  public int[] execute(Connection connection, Integer transactionTimeout, List<Object> parameterObjects) throws SQLException {
+    int[] updateCounts = new int[rows.size()];
+    int parametersPerRow = boundSql.getParameterMappings().size();
+    int rowsPerStatement = rowsPerStatement(parametersPerRow);
+    KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
+    PreparedStatement stmt = null;
+    int statementRows = 0;
+    int start = 0;
+    try {
+      while (start < rows.size()) {
+        int count = Math.min(rowsPerStatement, rows.size() - start);
+        if (count != statementRows) {
+          closeStatement(stmt);
+          stmt = prepare(connection, transactionTimeout, count);
+          statementRows = count;
+        } else {
+          stmt.clearParameters();
+        }
+        for (int i = 0; i < count; i++) {
+          rows.get(start + i).replay(stmt, i * parametersPerRow);
+        }
+        int updateCount = stmt.executeUpdate();
+        Arrays.fill(updateCounts, start, start + count, updateCount == count ? 1 : Statement.SUCCESS_NO_INFO);
+        if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
+          ((Jdbc3KeyGenerator) keyGenerator).processBatch(mappedStatement, stmt, parameterObjects.subList(start, start + count));
+        }
+        start += count;
+      }
+      return updateCounts;
+    } catch (SQLException e) {
+      throw new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(), Arrays.copyOf(updateCounts, start), e);
+    } finally {
+      closeStatement(stmt);
+    }
+  }
+
+  int rowsPerStatement(int parametersPerRow) {
+    Configuration configuration = mappedStatement.getConfiguration();
+    int rows = configuration.getBatchRewriteMaxRows();
+    if (parametersPerRow > 0) {
+      rows = Math.min(rows, configuration.getBatchRewriteMaxParameters() / parametersPerRow);
+    }
+    return Math.max(rows, 1);
+  }
+
+  String buildSql(int rows) {
+    StringBuilder sql = new StringBuilder(head.length() + (row.length() + 2) * rows + tail.length());
+    sql.append(head).append(row);
+    for (int i = 1; i < rows; i++) {
+      sql.append(", ").append(row);
+    }
+    return sql.append(tail).toString();
+  }
+
+  private PreparedStatement prepare(Connection connection, Integer transactionTimeout, int rows) throws SQLException {
+    BoundSql multiRowBoundSql = new BoundSql(mappedStatement.getConfiguration(), buildSql(rows),
+        boundSql.getParameterMappings(), boundSql.getParameterObject());
+    StatementHandler handler = mappedStatement.getConfiguration().newStatementHandler(
+        executor, mappedStatement, boundSql.getParameterObject(), RowBounds.DEFAULT, null, multiRowBoundSql);
+    return (PreparedStatement) handler.prepare(connection, transactionTimeout);
+  }
+
+  private void closeStatement(Statement statement) {
+    if (statement != null) {
+      try {
+        statement.close();
+      } catch (SQLException e) {
+        // ignore
+      }
+    }
+  }
+
+  /**
+   * The <code>PreparedStatement.setXxx(int, ...)</code> calls a row was bound with. They are recorded by a
+   * statement stub when the row is added and replayed, shifted by the row's offset, when it is executed.
+   */
+  static class RowParameters implements InvocationHandler {
+
+    private final Connection connection;
+    private final List<Method> methods = new ArrayList<Method>();
+    private final List<Object[]> arguments = new ArrayList<Object[]>();
+
+    RowParameters(Connection connection) {
+      this.connection = connection;
+    }
+
+    PreparedStatement getRecordingStatement() {
+      return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+          new Class<?>[] { PreparedStatement.class }, this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (Object.class.equals(method.getDeclaringClass())) {
+        if ("equals".equals(name)) {
+          return proxy == args[0];
+        } else if ("hashCode".equals(name)) {
+          return System.identityHashCode(proxy);
+        }
+        return "RowParameters" + arguments;
+      }
+      if (PreparedStatement.class.equals(method.getDeclaringClass()) && name.startsWith("set")
+          && args != null && args.length > 0 && args[0] instanceof Integer) {
+        Object[] recorded = args.clone();
+        for (int i = 1; i < recorded.length; i++) {
+          if (recorded[i] instanceof byte[]) {
+            recorded[i] = ((byte[]) recorded[i]).clone();
+          }
+        }
+        methods.add(method);
+        arguments.add(recorded);
+        return null;
+      } else if ("clearParameters".equals(name)) {
+        methods.clear();
+        arguments.clear();
+        return null;
+      } else if ("getConnection".equals(name)) {
+        return connection;
+      }
+      throw new SQLException(name + " is not supported while binding the parameters of a batched row.");
+    }
+
+    void replay(PreparedStatement statement, int offset) throws SQLException {
+      for (int i = 0; i < methods.size(); i++) {
+        Object[] args = arguments.get(i).clone();
+        args[0] = (Integer) args[0] + offset;
+        try {
+          methods.get(i).invoke(statement, args);
+        } catch (Exception e) {
+          Throwable cause = ExceptionUtil.unwrapThrowable(e);
+          if (cause instanceof SQLException) {
+            throw (SQLException) cause;
+          }
+          throw new SQLException("Error binding a batched row.  Cause: " + cause, cause);
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,58 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.sql.SQLException;
+import java.util.Collections;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Loads the value of one parent row from its {@link NestedQueryBatch}.
+ * <p>
+ * The parameter object is the single key list of this parent, so a deserialized lazy property
+ * still loads correctly with a plain {@link ResultLoader}.
+ */
+public class BatchResultLoader extends ResultLoader {
+
+  private final NestedQueryBatch batch;
+  private final Object key;
+
+  BatchResultLoader(NestedQueryBatch batch, Configuration config, Executor executor, MappedStatement mappedStatement,
+      Object key, Class<?> targetType) {
+    super(config, executor, mappedStatement, NestedQueryBatch.wrapKeys(Collections.singletonList(key)), targetType, null, null);
+    this.batch = batch;
+    this.key = key;
+  }
+
+  public Object getKey() {
+    return key;
+  }
+
+  @Override
+  public Object loadResult() throws SQLException {
+    resultObject = batch.load(this);
+    return resultObject;
+  }
+
+  @Override
+  public Object loadResult(Executor localExecutor) throws SQLException {
+    return loadResult();
+  }
+
+}
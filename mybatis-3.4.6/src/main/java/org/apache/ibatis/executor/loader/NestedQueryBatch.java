@@ -0,0 +1,173 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ResultExtractor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.defaults.DefaultSqlSession.StrictMap;
+
+/**
+ * Parent rows of one nested select mapping with a {@link ResultMapping#getBatchKey() batchKey}.
+ * <p>
+ * Instead of one select per parent row, the nested select is run with the list of parent keys
+ * (as <code>list</code>/<code>collection</code> parameter, at most {@link Configuration#getNestedQueryBatchSize()}
+ * keys per run) and every result is handed to the parents whose key equals its <code>batchKey</code> property.
+ * Eager mappings are loaded with {@link #loadTargets()}; lazy ones through the {@link BatchResultLoader}
+ * of each parent, where the first load runs the select for all parents registered so far.
+ */
+public class NestedQueryBatch {
+
+  private final Configuration configuration;
+  private final Executor executor;
+  private final MappedStatement mappedStatement;
+  private final String batchKey;
+  private final Class<?> targetType;
+  private final ResultExtractor resultExtractor;
+
+  private final Map<Object, Object> pendingKeys = new LinkedHashMap<Object, Object>();
+  private final Map<Object, List<Object>> results = new HashMap<Object, List<Object>>();
+  private final List<Target> targets = new ArrayList<Target>();
+
+  public NestedQueryBatch(Configuration configuration, Executor executor, MappedStatement mappedStatement,
+      ResultMapping resultMapping) {
+    this.configuration = configuration;
+    this.executor = executor;
+    this.mappedStatement = mappedStatement;
+    this.batchKey = resultMapping.getBatchKey();
+    this.targetType = resultMapping.getJavaType();
+    this.resultExtractor = new ResultExtractor(configuration, configuration.getObjectFactory());
+  }
+
+  /**
+   * Registers the parent of an eager mapping, its property is set by {@link #loadTargets()}.
+   */
+  public synchronized void addTarget(MetaObject metaObject, String property, Object key) {
+    addKey(key);
+    targets.add(new Target(metaObject, property, key));
+  }
+
+  /**
+   * Registers the parent of a lazy mapping and returns the loader of its property.
+   */
+  public synchronized BatchResultLoader newLoader(Object key) {
+    addKey(key);
+    return new BatchResultLoader(this, configuration, executor, mappedStatement, key, targetType);
+  }
+
+  /**
+   * Runs the nested select for the keys of all registered eager parents and sets their property.
+   */
+  public synchronized void loadTargets() throws SQLException {
+    if (targets.isEmpty()) {
+      return;
+    }
+    loadPendingKeys(new BatchResultLoader(this, configuration, executor, mappedStatement, null, targetType));
+    for (Target target : targets) {
+      Object value = getResult(target.key);
+      if (value != null || (configuration.isCallSettersOnNulls() && !target.metaObject.getSetterType(target.property).isPrimitive())) {
+        target.metaObject.setValue(target.property, value);
+      }
+    }
+    targets.clear();
+  }
+
+  synchronized Object load(BatchResultLoader loader) throws SQLException {
+    if (!results.containsKey(normalizeKey(loader.getKey()))) {
+      loadPendingKeys(loader);
+    }
+    return getResult(loader.getKey());
+  }
+
+  static Object wrapKeys(List<Object> keys) {
+    StrictMap<Object> parameterObject = new StrictMap<Object>();
+    parameterObject.put("collection", keys);
+    parameterObject.put("list", keys);
+    return parameterObject;
+  }
+
+  private void addKey(Object key) {
+    Object normalizedKey = normalizeKey(key);
+    if (!results.containsKey(normalizedKey) && !pendingKeys.containsKey(normalizedKey)) {
+      pendingKeys.put(normalizedKey, key);
+    }
+  }
+
+  private void loadPendingKeys(ResultLoader loader) throws SQLException {
+    List<Object> keys = new ArrayList<Object>(pendingKeys.values());
+    int batchSize = Math.max(configuration.getNestedQueryBatchSize(), 1);
+    for (int start = 0; start < keys.size(); start += batchSize) {
+      List<Object> chunk = keys.subList(start, Math.min(start + batchSize, keys.size()));
+      List<Object> rows = loader.selectList(wrapKeys(new ArrayList<Object>(chunk)));
+      for (Object key : chunk) {
+        results.put(normalizeKey(key), new ArrayList<Object>());
+      }
+      for (Object row : rows) {
+        List<Object> keyResults = results.get(normalizeKey(configuration.newMetaObject(row).getValue(batchKey)));
+        if (keyResults != null) {
+          keyResults.add(row);
+        }
+      }
+    }
+    pendingKeys.clear();
+  }
+
+  private Object getResult(Object key) {
+    List<Object> keyResults = results.get(normalizeKey(key));
+    List<Object> list = keyResults == null ? Collections.emptyList() : keyResults;
+    // every parent gets a collection of its own
+    return resultExtractor.extractObjectFromList(new ArrayList<Object>(list), targetType);
+  }
+
+  /**
+   * Parent keys and <code>batchKey</code> values may be read with different numeric types.
+   */
+  private static Object normalizeKey(Object key) {
+    if (key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte) {
+      return ((Number) key).longValue();
+    } else if (key instanceof BigInteger || key instanceof BigDecimal) {
+      BigDecimal decimal = key instanceof BigInteger ? new BigDecimal((BigInteger) key) : (BigDecimal) key;
+      return decimal.compareTo(BigDecimal.ZERO) == 0 ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+    }
+    return key;
+  }
+
+  private static class Target {
+    private final MetaObject metaObject;
+    private final String property;
+    private final Object key;
+
+    Target(MetaObject metaObject, String property, Object key) {
+      this.metaObject = metaObject;
+      this.property = property;
+      this.key = key;
+    }
+  }
+
+}
@@ -67,22 +67,48 @@ public class ResultLoader {
   }
 
   public Object loadResult() throws SQLException {
-    List<Object> list = selectList();
+    Executor localExecutor = localExecutor();
+    try {
+      return loadResult(localExecutor);
+    } finally {
+      closeLocalExecutor(localExecutor);
+    }
+  }
+
+  /**
+   * Loads the result on the given executor, e.g. one shared by all loads of a {@link ResultLoaderGroup}
+   * or one of the worker executors of concurrently loaded nested selects.
+   */
+  public Object loadResult(Executor localExecutor) throws SQLException {
+    List<Object> list = localExecutor.<Object> query(mappedStatement, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, cacheKey, boundSql);
     resultObject = resultExtractor.extractObjectFromList(list, targetType);
     return resultObject;
   }
 
-  private <E> List<E> selectList() throws SQLException {
-    Executor localExecutor = executor;
-    if (Thread.currentThread().getId() != this.creatorThreadId || localExecutor.isClosed()) {
-      localExecutor = newExecutor();
-    }
+  /**
+   * Runs the mapped statement with another parameter object, on the same executor {@link #loadResult()} would use.
+   */
+  protected <E> List<E> selectList(Object parameterObject) throws SQLException {
+    Executor localExecutor = localExecutor();
     try {
+      BoundSql boundSql = mappedStatement.getBoundSql(parameterObject);
+      CacheKey cacheKey = localExecutor.createCacheKey(mappedStatement, parameterObject, RowBounds.DEFAULT, boundSql);
       return localExecutor.<E> query(mappedStatement, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, cacheKey, boundSql);
     } finally {
-      if (localExecutor != executor) {
-        localExecutor.close(false);
-      }
+      closeLocalExecutor(localExecutor);
+    }
+  }
+
+  Executor localExecutor() {
+    if (Thread.currentThread().getId() != this.creatorThreadId || executor.isClosed()) {
+      return newExecutor();
+    }
+    return executor;
+  }
+
+  void closeLocalExecutor(Executor localExecutor) {
+    if (localExecutor != executor) {
+      localExecutor.close(false);
     }
   }
 
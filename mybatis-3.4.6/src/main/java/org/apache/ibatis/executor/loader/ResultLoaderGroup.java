@@ -0,0 +1,70 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.loader.ResultLoaderMap.LoadPair;
+
+/**
+ * Pending lazy loads of one property with a <code>batchKey</code> for all objects of a result list.
+ * <p>
+ * Loading the property of one object loads it for every other object of the group that has not loaded it yet,
+ * all on a single executor. They share one nested select, see {@link NestedQueryBatch}.
+ */
+public class ResultLoaderGroup {
+
+  private List<Member> members = new ArrayList<Member>();
+
+  synchronized void add(ResultLoaderMap resultLoaderMap, String property) {
+    members.add(new Member(resultLoaderMap, property));
+  }
+
+  void load(LoadPair trigger) throws SQLException {
+    List<Member> siblings;
+    synchronized (this) {
+      siblings = members;
+      members = new ArrayList<Member>();
+    }
+    ResultLoader resultLoader = trigger.getResultLoader();
+    Executor executor = resultLoader.localExecutor();
+    try {
+      trigger.loadWith(executor);
+      for (Member sibling : siblings) {
+        LoadPair pair = sibling.resultLoaderMap.removeLoader(sibling.property);
+        if (pair != null) {
+          pair.loadWith(executor);
+        }
+      }
+    } finally {
+      resultLoader.closeLocalExecutor(executor);
+    }
+  }
+
+  private static class Member {
+    private final ResultLoaderMap resultLoaderMap;
+    private final String property;
+
+    Member(ResultLoaderMap resultLoaderMap, String property) {
+      this.resultLoaderMap = resultLoaderMap;
+      this.property = property;
+    }
+  }
+
+}
@@ -31,6 +31,7 @@ import java.util.Set;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BaseExecutor;
 import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -48,15 +49,40 @@ import org.apache.ibatis.session.RowBounds;
 public class ResultLoaderMap {
 
   private final Map<String, LoadPair> loaderMap = new HashMap<String, LoadPair>();
+  private final Set<String> lazyProperties;
+
+  public ResultLoaderMap() {
+    this(null);
+  }
+
+  /**
+   * @param lazyProperties the only properties that may get a loader, lets a {@link ProxyFactory}
+   *          intercept just their accessors
+   */
+  public ResultLoaderMap(Set<String> lazyProperties) {
+    this.lazyProperties = lazyProperties;
+  }
 
   public void addLoader(String property, MetaObject metaResultObject, ResultLoader resultLoader) {
+    addLoader(property, metaResultObject, resultLoader, null);
+  }
+
+  /**
+   * Adds a loader that, when triggered, also loads the same property of the other objects of the group.
+   */
+  public void addLoader(String property, MetaObject metaResultObject, ResultLoader resultLoader, ResultLoaderGroup group) {
     String upperFirst = getUppercaseFirstProperty(property);
     if (!upperFirst.equalsIgnoreCase(property) && loaderMap.containsKey(upperFirst)) {
       throw new ExecutorException("Nested lazy loaded result property '" + property +
               "' for query id '" + resultLoader.mappedStatement.getId() +
               " already exists in the result map. The leftmost property of all lazy loaded properties must be unique within a result map.");
     }
-    loaderMap.put(upperFirst, new LoadPair(property, metaResultObject, resultLoader));
+    LoadPair pair = new LoadPair(property, metaResultObject, resultLoader);
+    if (group != null) {
+      pair.group = group;
+      group.add(this, upperFirst);
+    }
+    loaderMap.put(upperFirst, pair);
   }
 
   public final Map<String, LoadPair> getProperties() {
@@ -67,6 +93,13 @@ public class ResultLoaderMap {
     return loaderMap.keySet();
   }
 
+  /**
+   * Returns the properties that may get a loader, or null if any property may.
+   */
+  public Set<String> getLazyProperties() {
+    return lazyProperties;
+  }
+
   public int size() {
     return loaderMap.size();
   }
@@ -78,7 +111,11 @@ public class ResultLoaderMap {
   public boolean load(String property) throws SQLException {
     LoadPair pair = loaderMap.remove(property.toUpperCase(Locale.ENGLISH));
     if (pair != null) {
-      pair.load();
+      if (pair.group != null) {
+        pair.group.load(pair);
+      } else {
+        pair.load();
+      }
       return true;
     }
     return false;
@@ -88,6 +125,10 @@ public class ResultLoaderMap {
     loaderMap.remove(property.toUpperCase(Locale.ENGLISH));
   }
 
+  synchronized LoadPair removeLoader(String upperFirst) {
+    return loaderMap.remove(upperFirst);
+  }
+
   public void loadAll() throws SQLException {
     final Set<String> methodNameSet = loaderMap.keySet();
     String[] methodNames = methodNameSet.toArray(new String[methodNameSet.size()]);
@@ -143,6 +184,10 @@ public class ResultLoaderMap {
      * Parameter of the sql statement.
      */
     private Serializable mappedParameter;
+    /**
+     * Loaders of the same property of sibling objects, or null.
+     */
+    private transient ResultLoaderGroup group;
 
     private LoadPair(final String property, MetaObject metaResultObject, ResultLoader resultLoader) {
       this.property = property;
@@ -219,6 +264,17 @@ public class ResultLoaderMap {
       this.metaResultObject.setValue(property, this.resultLoader.loadResult());
     }
 
+    /**
+     * Loads the property on the executor of its {@link ResultLoaderGroup}.
+     */
+    void loadWith(final Executor executor) throws SQLException {
+      this.metaResultObject.setValue(property, this.resultLoader.loadResult(executor));
+    }
+
+    ResultLoader getResultLoader() {
+      return resultLoader;
+    }
+
     private Configuration getConfiguration() {
       if (this.configurationFactory == null) {
         throw new ExecutorException("Cannot get Configuration as configuration factory was not set.");
@@ -15,12 +15,19 @@
  */
 package org.apache.ibatis.executor.loader.javassist;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import javassist.util.proxy.MethodFilter;
 import javassist.util.proxy.MethodHandler;
 import javassist.util.proxy.Proxy;
 import javassist.util.proxy.ProxyFactory;
@@ -48,6 +55,8 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
   private static final String FINALIZE_METHOD = "finalize";
   private static final String WRITE_REPLACE_METHOD = "writeReplace";
 
+  private final ConcurrentMap<ProxyKey, Constructor<?>> proxyConstructors = new ConcurrentHashMap<ProxyKey, Constructor<?>>();
+
   public JavassistProxyFactory() {
     try {
       Resources.classForName("javassist.util.proxy.ProxyFactory");
@@ -58,7 +67,40 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
 
   @Override
   public Object createProxy(Object target, ResultLoaderMap lazyLoader, Configuration configuration, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
-    return EnhancedResultObjectProxyImpl.createProxy(target, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
+    if (lazyLoader.getLazyProperties() == null) {
+      return EnhancedResultObjectProxyImpl.createProxy(target, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
+    }
+    Constructor<?> proxyConstructor = getProxyConstructor(target.getClass(), lazyLoader.getLazyProperties(), configuration, constructorArgTypes);
+    return EnhancedResultObjectProxyImpl.createProxy(proxyConstructor, target, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
+  }
+
+  /**
+   * Returns the constructor of the proxy class that intercepts only the accessors of the lazy properties
+   * and the lazy load trigger methods. The class is generated once per result type and set of lazy properties.
+   */
+  private Constructor<?> getProxyConstructor(Class<?> type, Set<String> lazyProperties, Configuration configuration, List<Class<?>> constructorArgTypes) {
+    boolean aggressive = configuration.isAggressiveLazyLoading();
+    Set<String> lazyLoadTriggerMethods = configuration.getLazyLoadTriggerMethods();
+    ProxyKey key = new ProxyKey(type, constructorArgTypes, lazyProperties, aggressive, lazyLoadTriggerMethods);
+    Constructor<?> proxyConstructor = proxyConstructors.get(key);
+    if (proxyConstructor == null) {
+      ProxyFactory enhancer = newProxyFactory(type);
+      enhancer.setFilter(new LazyPropertyMethodFilter(lazyProperties, aggressive, lazyLoadTriggerMethods));
+      try {
+        Class<?> proxyType = enhancer.createClass();
+        proxyConstructor = proxyType.getConstructor(constructorArgTypes.toArray(new Class<?>[constructorArgTypes.size()]));
+      } catch (Exception e) {
+        throw new ExecutorException("Error creating lazy proxy class.  Cause: " + e, e);
+      }
+      // the key may outlive the caller's collections
+      key = new ProxyKey(type, new ArrayList<Class<?>>(constructorArgTypes), new HashSet<String>(lazyProperties), aggressive,
+          new HashSet<String>(lazyLoadTriggerMethods));
+      Constructor<?> existing = proxyConstructors.putIfAbsent(key, proxyConstructor);
+      if (existing != null) {
+        proxyConstructor = existing;
+      }
+    }
+    return proxyConstructor;
   }
 
   public Object createDeserializationProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
@@ -72,6 +114,21 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
 
   static Object crateProxy(Class<?> type, MethodHandler callback, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
 
+    ProxyFactory enhancer = newProxyFactory(type);
+
+    Object enhanced;
+    Class<?>[] typesArray = constructorArgTypes.toArray(new Class[constructorArgTypes.size()]);
+    Object[] valuesArray = constructorArgs.toArray(new Object[constructorArgs.size()]);
+    try {
+      enhanced = enhancer.create(typesArray, valuesArray);
+    } catch (Exception e) {
+      throw new ExecutorException("Error creating lazy proxy.  Cause: " + e, e);
+    }
+    ((Proxy) enhanced).setHandler(callback);
+    return enhanced;
+  }
+
+  private static ProxyFactory newProxyFactory(Class<?> type) {
     ProxyFactory enhancer = new ProxyFactory();
     enhancer.setSuperclass(type);
 
@@ -86,17 +143,7 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
     } catch (SecurityException e) {
       // nothing to do here
     }
-
-    Object enhanced;
-    Class<?>[] typesArray = constructorArgTypes.toArray(new Class[constructorArgTypes.size()]);
-    Object[] valuesArray = constructorArgs.toArray(new Object[constructorArgs.size()]);
-    try {
-      enhanced = enhancer.create(typesArray, valuesArray);
-    } catch (Exception e) {
-      throw new ExecutorException("Error creating lazy proxy.  Cause: " + e, e);
-    }
-    ((Proxy) enhanced).setHandler(callback);
-    return enhanced;
+    return enhancer;
   }
 
   private static class EnhancedResultObjectProxyImpl implements MethodHandler {
@@ -127,6 +174,20 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
       return enhanced;
     }
 
+    public static Object createProxy(Constructor<?> proxyConstructor, Object target, ResultLoaderMap lazyLoader, Configuration configuration, ObjectFactory objectFactory, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+      final Class<?> type = target.getClass();
+      EnhancedResultObjectProxyImpl callback = new EnhancedResultObjectProxyImpl(type, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
+      Object enhanced;
+      try {
+        enhanced = proxyConstructor.newInstance(constructorArgs.toArray(new Object[constructorArgs.size()]));
+      } catch (Exception e) {
+        throw new ExecutorException("Error creating lazy proxy.  Cause: " + e, e);
+      }
+      ((Proxy) enhanced).setHandler(callback);
+      PropertyCopier.copyBeanProperties(type, target, enhanced);
+      return enhanced;
+    }
+
     @Override
     public Object invoke(Object enhanced, Method method, Method methodProxy, Object[] args) throws Throwable {
       final String methodName = method.getName();
@@ -168,6 +229,80 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
     }
   }
 
+  /**
+   * Selects the methods that may start or cancel a lazy load, every other method runs without the handler.
+   */
+  private static class LazyPropertyMethodFilter implements MethodFilter {
+
+    private final Set<String> lazyProperties = new HashSet<String>();
+    private final boolean aggressive;
+    private final Set<String> lazyLoadTriggerMethods;
+
+    private LazyPropertyMethodFilter(Set<String> lazyProperties, boolean aggressive, Set<String> lazyLoadTriggerMethods) {
+      for (String property : lazyProperties) {
+        // loaders are registered under the upper cased leftmost property
+        this.lazyProperties.add(property.split("\\.")[0].toUpperCase(Locale.ENGLISH));
+      }
+      this.aggressive = aggressive;
+      this.lazyLoadTriggerMethods = lazyLoadTriggerMethods;
+    }
+
+    @Override
+    public boolean isHandled(Method method) {
+      final String methodName = method.getName();
+      if (FINALIZE_METHOD.equals(methodName)) {
+        return false;
+      } else if (aggressive || WRITE_REPLACE_METHOD.equals(methodName) || lazyLoadTriggerMethods.contains(methodName)) {
+        return true;
+      } else if (PropertyNamer.isGetter(methodName) || PropertyNamer.isSetter(methodName)) {
+        return lazyProperties.contains(PropertyNamer.methodToProperty(methodName).toUpperCase(Locale.ENGLISH));
+      }
+      return false;
+    }
+  }
+
+  private static class ProxyKey {
+
+    private final Class<?> type;
+    private final List<Class<?>> constructorArgTypes;
+    private final Set<String> lazyProperties;
+    private final boolean aggressive;
+    private final Set<String> lazyLoadTriggerMethods;
+    private final int hashCode;
+
+    private ProxyKey(Class<?> type, List<Class<?>> constructorArgTypes, Set<String> lazyProperties, boolean aggressive, Set<String> lazyLoadTriggerMethods) {
+      this.type = type;
+      this.constructorArgTypes = constructorArgTypes;
+      this.lazyProperties = lazyProperties;
+      this.aggressive = aggressive;
+      this.lazyLoadTriggerMethods = lazyLoadTriggerMethods;
+      int hash = type.hashCode();
+      hash = 31 * hash + constructorArgTypes.hashCode();
+      hash = 31 * hash + lazyProperties.hashCode();
+      hash = 31 * hash + (aggressive ? 1 : 0);
+      this.hashCode = 31 * hash + lazyLoadTriggerMethods.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof ProxyKey)) {
+        return false;
+      }
+      ProxyKey other = (ProxyKey) obj;
+      return hashCode == other.hashCode && type.equals(other.type) && aggressive == other.aggressive
+          && constructorArgTypes.equals(other.constructorArgTypes) && lazyProperties.equals(other.lazyProperties)
+          && lazyLoadTriggerMethods.equals(other.lazyLoadTriggerMethods);
+    }
+  }
+
   private static class EnhancedDeserializationProxyImpl extends AbstractEnhancedDeserializationProxy implements MethodHandler {
 
     private EnhancedDeserializationProxyImpl(Class<?> type, Map<String, ResultLoaderMap.LoadPair> unloadedProperties, ObjectFactory objectFactory,
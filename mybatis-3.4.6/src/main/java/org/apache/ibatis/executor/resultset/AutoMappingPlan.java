@@ -0,0 +1,79 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * The columns of a result set that are auto-mapped to properties of a result map, with their resolved
+ * property names and type handlers.
+ * <p>
+ * A plan only depends on the columns of the result set, so it is cached per {@link ResultMap} in the
+ * {@link AutoMappingPlanCache} and shared by all executions that return the same columns.
+ */
+public final class AutoMappingPlan {
+
+  private final List<ColumnMapping> columnMappings;
+  private final boolean unknownColumns;
+
+  AutoMappingPlan(List<ColumnMapping> columnMappings, boolean unknownColumns) {
+    this.columnMappings = Collections.unmodifiableList(columnMappings);
+    this.unknownColumns = unknownColumns;
+  }
+
+  List<ColumnMapping> getColumnMappings() {
+    return columnMappings;
+  }
+
+  /**
+   * Returns true if some columns could not be auto-mapped, see {@link Configuration#getAutoMappingUnknownColumnBehavior()}.
+   */
+  boolean hasUnknownColumns() {
+    return unknownColumns;
+  }
+
+  /**
+   * Returns the key of the plan for the columns of the result set, the column prefix, the type of the result object
+   * and the settings that affect auto-mapping.
+   */
+  static Object createKey(Configuration configuration, ResultSetWrapper rsw, String columnPrefix, Class<?> resultObjectType) {
+    return Arrays.<Object>asList(columnPrefix, resultObjectType, rsw.getColumnNames(), rsw.getJdbcTypes(), rsw.getClassNames(),
+        configuration.isMapUnderscoreToCamelCase(), configuration.getAutoMappingUnknownColumnBehavior());
+  }
+
+  static class ColumnMapping {
+    final int columnIndex;
+    final String column;
+    final String property;
+    final TypeHandler<?> typeHandler;
+    final boolean primitive;
+
+    ColumnMapping(int columnIndex, String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
+      this.columnIndex = columnIndex;
+      this.column = column;
+      this.property = property;
+      this.typeHandler = typeHandler;
+      this.primitive = primitive;
+    }
+  }
+
+}
@@ -0,0 +1,60 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.mapping.ResultMap;
+
+/**
+ * The {@link AutoMappingPlan}s of each {@link ResultMap} of a configuration.
+ */
+public class AutoMappingPlanCache {
+
+  /**
+   * At most this many plans are cached per result map, statements with changing columns do not fill up memory.
+   */
+  private static final int MAX_AUTO_MAPPING_PLANS = 32;
+
+  private final ConcurrentMap<ResultMap, ConcurrentMap<Object, AutoMappingPlan>> plans = new ConcurrentHashMap<ResultMap, ConcurrentMap<Object, AutoMappingPlan>>();
+
+  /**
+   * Returns the plan cached for the result map and the key, or null.
+   */
+  AutoMappingPlan get(ResultMap resultMap, Object key) {
+    ConcurrentMap<Object, AutoMappingPlan> resultMapPlans = plans.get(resultMap);
+    return resultMapPlans == null ? null : resultMapPlans.get(key);
+  }
+
+  /**
+   * Caches the plan for later executions of the result map that return the same columns.
+   */
+  void put(ResultMap resultMap, Object key, AutoMappingPlan plan) {
+    ConcurrentMap<Object, AutoMappingPlan> resultMapPlans = plans.get(resultMap);
+    if (resultMapPlans == null) {
+      resultMapPlans = new ConcurrentHashMap<Object, AutoMappingPlan>();
+      ConcurrentMap<Object, AutoMappingPlan> previous = plans.putIfAbsent(resultMap, resultMapPlans);
+      if (previous != null) {
+        resultMapPlans = previous;
+      }
+    }
+    if (resultMapPlans.size() < MAX_AUTO_MAPPING_PLANS) {
+      resultMapPlans.putIfAbsent(key, plan);
+    }
+  }
+
+}
@@ -23,7 +23,9 @@ import org.apache.ibatis.cursor.defaults.DefaultCursor;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.loader.NestedQueryBatch;
 import org.apache.ibatis.executor.loader.ResultLoader;
+import org.apache.ibatis.executor.loader.ResultLoaderGroup;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
@@ -41,12 +43,14 @@ import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
+import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.apache.ibatis.type.UnknownTypeHandler;
 
 import java.lang.reflect.Constructor;
 import java.sql.CallableStatement;
@@ -56,6 +60,7 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -70,6 +75,7 @@ import java.util.Set;
 public class DefaultResultSetHandler implements ResultSetHandler {
 
   private static final Object DEFERED = new Object();
+  private static final Object PENDING = new Object();
 
   private final Executor executor;
   private final Configuration configuration;
@@ -86,38 +92,39 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final Map<CacheKey, Object> nestedResultObjects = new HashMap<CacheKey, Object>();
   private final Map<String, Object> ancestorObjects = new HashMap<String, Object>();
   private Object previousRowValue;
+  // key of the current object of each nested property, by key of the parent object (only for streamed results)
+  private final Map<CacheKey, Map<String, CacheKey>> streamedNestedKeys = new HashMap<CacheKey, Map<String, CacheKey>>();
 
   // multiple resultsets
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<String, ResultMapping>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<CacheKey, List<PendingRelation>>();
 
-  // Cached Automappings
-  private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<String, List<UnMappedColumnAutoMapping>>();
+  // Cached Automappings of the current result set, by result map and column prefix
+  private final Map<ResultMap, Map<String, AutoMappingPlan>> autoMappingsCache = new IdentityHashMap<ResultMap, Map<String, AutoMappingPlan>>();
 
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
 
   private final PrimitiveTypes primitiveTypes;
 
+  // eager nested selects of the current row, run concurrently when the statement allows it
+  private final ParallelNestedQueries parallelNestedQueries;
+
+  // nested selects with a batchKey, loaded once for all rows of the result set (or of the current row)
+  private final Map<ResultMapping, NestedQueryBatch> nestedQueryBatches = new IdentityHashMap<ResultMapping, NestedQueryBatch>();
+  private boolean batchNestedQueriesAcrossRows;
+
+  // lazy loads of one property with a batchKey for all rows of the result set, see Configuration#isBatchLazyLoading()
+  private final Map<ResultMapping, ResultLoaderGroup> resultLoaderGroups = new IdentityHashMap<ResultMapping, ResultLoaderGroup>();
+
+  // column prefixes of nested result maps, by parent prefix
+  private final Map<ResultMapping, Map<String, String>> columnPrefixes = new IdentityHashMap<ResultMapping, Map<String, String>>();
+
   private static class PendingRelation {
     public MetaObject metaObject;
     public ResultMapping propertyMapping;
   }
 
-  private static class UnMappedColumnAutoMapping {
-    private final String column;
-    private final String property;
-    private final TypeHandler<?> typeHandler;
-    private final boolean primitive;
-
-    public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
-      this.column = column;
-      this.property = property;
-      this.typeHandler = typeHandler;
-      this.primitive = primitive;
-    }
-  }
-
   public DefaultResultSetHandler(Executor executor, MappedStatement mappedStatement, ParameterHandler parameterHandler, ResultHandler<?> resultHandler, BoundSql boundSql,
                                  RowBounds rowBounds) {
     this.executor = executor;
@@ -131,6 +138,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     this.reflectorFactory = configuration.getReflectorFactory();
     this.resultHandler = resultHandler;
     this.primitiveTypes = new PrimitiveTypes();
+    int nestedQueryParallelism = mappedStatement.getNestedQueryParallelism();
+    this.parallelNestedQueries = nestedQueryParallelism > 1 ? new ParallelNestedQueries(configuration, nestedQueryParallelism) : null;
   }
 
   //
@@ -183,38 +192,51 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   public List<Object> handleResultSets(Statement stmt) throws SQLException {
     ErrorContext.instance().activity("handling results").object(mappedStatement.getId());
 
-    final List<Object> multipleResults = new ArrayList<Object>();
+    try {
+      final List<Object> multipleResults = new ArrayList<Object>();
 
-    int resultSetCount = 0;
-    ResultSetWrapper rsw = getFirstResultSet(stmt);
+      int resultSetCount = 0;
+      ResultSetWrapper rsw = getFirstResultSet(stmt);
 
-    List<ResultMap> resultMaps = mappedStatement.getResultMaps();
-    int resultMapCount = resultMaps.size();
-    validateResultMapsCount(rsw, resultMapCount);
-    while (rsw != null && resultMapCount > resultSetCount) {
-      ResultMap resultMap = resultMaps.get(resultSetCount);
-      handleResultSet(rsw, resultMap, multipleResults, null);
-      rsw = getNextResultSet(stmt);
-      cleanUpAfterHandlingResultSet();
-      resultSetCount++;
-    }
-
-    String[] resultSets = mappedStatement.getResultSets();
-    if (resultSets != null) {
-      while (rsw != null && resultSetCount < resultSets.length) {
-        ResultMapping parentMapping = nextResultMaps.get(resultSets[resultSetCount]);
-        if (parentMapping != null) {
-          String nestedResultMapId = parentMapping.getNestedResultMapId();
-          ResultMap resultMap = configuration.getResultMap(nestedResultMapId);
-          handleResultSet(rsw, resultMap, null, parentMapping);
-        }
+      List<ResultMap> resultMaps = mappedStatement.getResultMaps();
+      int resultMapCount = resultMaps.size();
+      validateResultMapsCount(rsw, resultMapCount);
+      while (rsw != null && resultMapCount > resultSetCount) {
+        ResultMap resultMap = resultMaps.get(resultSetCount);
+        handleResultSet(rsw, resultMap, multipleResults, null);
         rsw = getNextResultSet(stmt);
         cleanUpAfterHandlingResultSet();
         resultSetCount++;
       }
+
+      String[] resultSets = mappedStatement.getResultSets();
+      if (resultSets != null) {
+        while (rsw != null && resultSetCount < resultSets.length) {
+          ResultMapping parentMapping = nextResultMaps.get(resultSets[resultSetCount]);
+          if (parentMapping != null) {
+            String nestedResultMapId = parentMapping.getNestedResultMapId();
+            ResultMap resultMap = configuration.getResultMap(nestedResultMapId);
+            handleResultSet(rsw, resultMap, null, parentMapping);
+          }
+          rsw = getNextResultSet(stmt);
+          cleanUpAfterHandlingResultSet();
+          resultSetCount++;
+        }
+      }
+
+      return collapseSingleResultList(multipleResults);
+    } finally {
+      closeNestedQueryExecutors();
     }
+  }
 
-    return collapseSingleResultList(multipleResults);
+  /**
+   * Closes the connections opened to run nested selects concurrently, once the results are mapped.
+   */
+  public void closeNestedQueryExecutors() {
+    if (parallelNestedQueries != null) {
+      parallelNestedQueries.close();
+    }
   }
 
   @Override
@@ -284,6 +306,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private void cleanUpAfterHandlingResultSet() {
     nestedResultObjects.clear();
+    streamedNestedKeys.clear();
+    autoMappingsCache.clear();
   }
 
   private void validateResultMapsCount(ResultSetWrapper rsw, int resultMapCount) {
@@ -295,23 +319,36 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private void handleResultSet(ResultSetWrapper rsw, ResultMap resultMap, List<Object> multipleResults, ResultMapping parentMapping) throws SQLException {
     try {
+      // rows handed to a user result handler must be complete, their batches are loaded row by row
+      batchNestedQueriesAcrossRows = parentMapping != null || resultHandler == null;
       if (parentMapping != null) {
         handleRowValues(rsw, resultMap, null, RowBounds.DEFAULT, parentMapping);
+        loadNestedQueryBatches();
       } else {
         if (resultHandler == null) {
           DefaultResultHandler defaultResultHandler = new DefaultResultHandler(objectFactory);
           handleRowValues(rsw, resultMap, defaultResultHandler, rowBounds, null);
+          loadNestedQueryBatches();
           multipleResults.add(defaultResultHandler.getResultList());
         } else {
           handleRowValues(rsw, resultMap, resultHandler, rowBounds, null);
         }
       }
     } finally {
+      batchNestedQueriesAcrossRows = false;
+      nestedQueryBatches.clear();
+      resultLoaderGroups.clear();
       // issue #228 (close resultsets)
       closeResultSet(rsw.getResultSet());
     }
   }
 
+  private void loadNestedQueryBatches() throws SQLException {
+    for (NestedQueryBatch batch : nestedQueryBatches.values()) {
+      batch.loadTargets();
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private List<Object> collapseSingleResultList(List<Object> multipleResults) {
     return multipleResults.size() == 1 ? (List<Object>) multipleResults.get(0) : multipleResults;
@@ -349,14 +386,45 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private void handleRowValuesForSimpleResultMap(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler, RowBounds rowBounds, ResultMapping parentMapping)
       throws SQLException {
     DefaultResultContext<Object> resultContext = new DefaultResultContext<Object>();
+    final RowMapper rowMapper = getCompiledRowMapper(rsw, resultMap);
     skipRows(rsw.getResultSet(), rowBounds);
     while (shouldProcessMoreRows(resultContext, rowBounds) && rsw.getResultSet().next()) {
-      ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw.getResultSet(), resultMap, null);
-      Object rowValue = getRowValue(rsw, discriminatedResultMap);
+      Object rowValue;
+      if (rowMapper != null) {
+        rowValue = rowMapper.mapRow(rsw.getResultSet());
+      } else {
+        ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw, resultMap, null);
+        rowValue = getRowValue(rsw, discriminatedResultMap);
+      }
       storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw.getResultSet());
     }
   }
 
+  private RowMapper getCompiledRowMapper(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    final RowMapperCompiler compiler = configuration.getRowMapperCompiler();
+    if (!configuration.isCompileRowMappers() || hasTypeHandlerForResultObject(rsw, resultMap.getType())
+        || !compiler.isCompilable(resultMap)) {
+      return null;
+    }
+    RowMapper rowMapper = compiler.getRowMapper(resultMap, rsw);
+    if (rowMapper == null) {
+      final List<RowMapperCompiler.ColumnMapping> autoMappings = new ArrayList<RowMapperCompiler.ColumnMapping>();
+      if (shouldApplyAutomaticMappings(resultMap, false)) {
+        final MetaObject metaObject = configuration.newMetaObject(objectFactory.create(resultMap.getType()));
+        final AutoMappingPlan plan = getAutoMappingPlan(rsw, resultMap, metaObject, null);
+        if (!isShareable(plan)) {
+          // unknown columns are reported by each execution, a cached row mapper would skip that
+          return null;
+        }
+        for (AutoMappingPlan.ColumnMapping mapping : plan.getColumnMappings()) {
+          autoMappings.add(new RowMapperCompiler.ColumnMapping(mapping.column, mapping.property, mapping.typeHandler));
+        }
+      }
+      rowMapper = compiler.compile(resultMap, rsw, autoMappings);
+    }
+    return rowMapper;
+  }
+
   private void storeObject(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue, ResultMapping parentMapping, ResultSet rs) throws SQLException {
     if (parentMapping != null) {
       linkToParents(rs, parentMapping, rowValue);
@@ -392,7 +460,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
-    final ResultLoaderMap lazyLoader = new ResultLoaderMap();
+    final ResultLoaderMap lazyLoader = new ResultLoaderMap(resultMap.getLazyProperties());
     Object rowValue = createResultObject(rsw, resultMap, lazyLoader, null);
     if (rowValue != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
       final MetaObject metaObject = configuration.newMetaObject(rowValue);
@@ -425,19 +493,18 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private boolean applyPropertyMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
-    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
     boolean foundValues = false;
     final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
     for (ResultMapping propertyMapping : propertyMappings) {
-      String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
+      String column = propertyMapping.getColumn();
       if (propertyMapping.getNestedResultMapId() != null) {
         // the user added a column attribute to a nested result map, ignore it
         column = null;
       }
       if (propertyMapping.isCompositeResult()
-          || (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH)))
+          || (column != null && rsw.getColumnIndex(column, columnPrefix) > 0)
           || propertyMapping.getResultSet() != null) {
-        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix);
+        Object value = getPropertyMappingValue(rsw, metaObject, propertyMapping, lazyLoader, columnPrefix);
         // issue #541 make property optional
         final String property = propertyMapping.getProperty();
         if (property == null) {
@@ -445,6 +512,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         } else if (value == DEFERED) {
           foundValues = true;
           continue;
+        } else if (value == PENDING) {
+          continue;
         }
         if (value != null) {
           foundValues = true;
@@ -455,69 +524,123 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
     }
+    if (parallelNestedQueries != null && !parallelNestedQueries.isEmpty()) {
+      foundValues = parallelNestedQueries.loadAll() || foundValues;
+    }
+    if (!batchNestedQueriesAcrossRows && !nestedQueryBatches.isEmpty()) {
+      loadNestedQueryBatches();
+      nestedQueryBatches.clear();
+    }
     return foundValues;
   }
 
-  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
+  private Object getPropertyMappingValue(ResultSetWrapper rsw, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
     if (propertyMapping.getNestedQueryId() != null) {
-      return getNestedQueryMappingValue(rs, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
+      return getNestedQueryMappingValue(rsw, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
     } else if (propertyMapping.getResultSet() != null) {
-      addPendingChildRelation(rs, metaResultObject, propertyMapping);   // TODO is that OK?
+      addPendingChildRelation(rsw.getResultSet(), metaResultObject, propertyMapping);   // TODO is that OK?
       return DEFERED;
     } else {
-      final TypeHandler<?> typeHandler = propertyMapping.getTypeHandler();
-      final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      return typeHandler.getResult(rs, column);
-    }
-  }
-
-  private List<UnMappedColumnAutoMapping> createAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
-    final String mapKey = resultMap.getId() + ":" + columnPrefix;
-    List<UnMappedColumnAutoMapping> autoMapping = autoMappingsCache.get(mapKey);
-    if (autoMapping == null) {
-      autoMapping = new ArrayList<UnMappedColumnAutoMapping>();
-      final List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
-      for (String columnName : unmappedColumnNames) {
-        String propertyName = columnName;
-        if (columnPrefix != null && !columnPrefix.isEmpty()) {
-          // When columnPrefix is specified,
-          // ignore columns without the prefix.
-          if (columnName.toUpperCase(Locale.ENGLISH).startsWith(columnPrefix)) {
-            propertyName = columnName.substring(columnPrefix.length());
-          } else {
-            continue;
-          }
+      return getColumnValue(rsw, propertyMapping.getTypeHandler(), propertyMapping.getColumn(), columnPrefix);
+    }
+  }
+
+  /**
+   * Reads a column by its index, which the result set wrapper resolves once per column name and prefix.
+   * A column that is not in the result set is read by name, so that the driver reports it.
+   */
+  private Object getColumnValue(ResultSetWrapper rsw, TypeHandler<?> typeHandler, String column, String columnPrefix) throws SQLException {
+    final int columnIndex = rsw.getColumnIndex(column, columnPrefix);
+    if (columnIndex > 0) {
+      return resolveTypeHandler(rsw, typeHandler, columnIndex).getResult(rsw.getResultSet(), columnIndex);
+    }
+    return typeHandler.getResult(rsw.getResultSet(), prependPrefix(column, columnPrefix));
+  }
+
+  private TypeHandler<?> resolveTypeHandler(ResultSetWrapper rsw, TypeHandler<?> typeHandler, int columnIndex) {
+    if (typeHandler.getClass() == UnknownTypeHandler.class) {
+      return rsw.getUnknownTypeHandler(columnIndex);
+    }
+    return typeHandler;
+  }
+
+  private List<AutoMappingPlan.ColumnMapping> createAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
+    return getAutoMappingPlan(rsw, resultMap, metaObject, columnPrefix).getColumnMappings();
+  }
+
+  private AutoMappingPlan getAutoMappingPlan(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
+    Map<String, AutoMappingPlan> plans = autoMappingsCache.get(resultMap);
+    if (plans == null) {
+      plans = new HashMap<String, AutoMappingPlan>();
+      autoMappingsCache.put(resultMap, plans);
+    }
+    AutoMappingPlan plan = plans.get(columnPrefix);
+    if (plan == null) {
+      final Object planKey = AutoMappingPlan.createKey(configuration, rsw, columnPrefix, metaObject.getOriginalObject().getClass());
+      plan = configuration.getAutoMappingPlanCache().get(resultMap, planKey);
+      if (plan == null) {
+        plan = createAutoMappingPlan(rsw, resultMap, metaObject, columnPrefix, planKey);
+      }
+      plans.put(columnPrefix, plan);
+    }
+    return plan;
+  }
+
+  private AutoMappingPlan createAutoMappingPlan(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix, Object planKey) throws SQLException {
+    final List<AutoMappingPlan.ColumnMapping> autoMapping = new ArrayList<AutoMappingPlan.ColumnMapping>();
+    boolean unknownColumns = false;
+    final List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
+    for (String columnName : unmappedColumnNames) {
+      String propertyName = columnName;
+      if (columnPrefix != null && !columnPrefix.isEmpty()) {
+        // When columnPrefix is specified,
+        // ignore columns without the prefix.
+        if (columnName.toUpperCase(Locale.ENGLISH).startsWith(columnPrefix)) {
+          propertyName = columnName.substring(columnPrefix.length());
+        } else {
+          continue;
         }
-        final String property = metaObject.findProperty(propertyName, configuration.isMapUnderscoreToCamelCase());
-        if (property != null && metaObject.hasSetter(property)) {
-          if (resultMap.getMappedProperties().contains(property)) {
-            continue;
-          }
-          final Class<?> propertyType = metaObject.getSetterType(property);
-          if (typeHandlerRegistry.hasTypeHandler(propertyType, rsw.getJdbcType(columnName))) {
-            final TypeHandler<?> typeHandler = rsw.getTypeHandler(propertyType, columnName);
-            autoMapping.add(new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive()));
-          } else {
-            configuration.getAutoMappingUnknownColumnBehavior()
-                .doAction(mappedStatement, columnName, property, propertyType);
-          }
+      }
+      final String property = metaObject.findProperty(propertyName, configuration.isMapUnderscoreToCamelCase());
+      if (property != null && metaObject.hasSetter(property)) {
+        if (resultMap.getMappedProperties().contains(property)) {
+          continue;
+        }
+        final Class<?> propertyType = metaObject.getSetterType(property);
+        if (typeHandlerRegistry.hasTypeHandler(propertyType, rsw.getJdbcType(columnName))) {
+          final TypeHandler<?> typeHandler = rsw.getTypeHandler(propertyType, columnName);
+          autoMapping.add(new AutoMappingPlan.ColumnMapping(rsw.getColumnIndex(columnName, null), columnName, property,
+              typeHandler, propertyType.isPrimitive()));
         } else {
+          unknownColumns = true;
           configuration.getAutoMappingUnknownColumnBehavior()
-              .doAction(mappedStatement, columnName, (property != null) ? property : propertyName, null);
+              .doAction(mappedStatement, columnName, property, propertyType);
         }
+      } else {
+        unknownColumns = true;
+        configuration.getAutoMappingUnknownColumnBehavior()
+            .doAction(mappedStatement, columnName, (property != null) ? property : propertyName, null);
       }
-      autoMappingsCache.put(mapKey, autoMapping);
     }
-    return autoMapping;
+    final AutoMappingPlan plan = new AutoMappingPlan(autoMapping, unknownColumns);
+    if (isShareable(plan)) {
+      configuration.getAutoMappingPlanCache().put(resultMap, planKey, plan);
+    }
+    return plan;
+  }
+
+  private boolean isShareable(AutoMappingPlan plan) {
+    // a plan with unknown columns is not shared, each execution reports them
+    return !plan.hasUnknownColumns() || configuration.getAutoMappingUnknownColumnBehavior() == AutoMappingUnknownColumnBehavior.NONE;
   }
 
   private boolean applyAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
-    List<UnMappedColumnAutoMapping> autoMapping = createAutomaticMappings(rsw, resultMap, metaObject, columnPrefix);
+    List<AutoMappingPlan.ColumnMapping> autoMapping = createAutomaticMappings(rsw, resultMap, metaObject, columnPrefix);
     boolean foundValues = false;
     if (!autoMapping.isEmpty()) {
-      for (UnMappedColumnAutoMapping mapping : autoMapping) {
-        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+      for (AutoMappingPlan.ColumnMapping mapping : autoMapping) {
+        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.columnIndex);
         if (value != null) {
           foundValues = true;
         }
@@ -632,13 +755,12 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       final Object value;
       try {
         if (constructorMapping.getNestedQueryId() != null) {
-          value = getNestedQueryConstructorValue(rsw.getResultSet(), constructorMapping, columnPrefix);
+          value = getNestedQueryConstructorValue(rsw, constructorMapping, columnPrefix);
         } else if (constructorMapping.getNestedResultMapId() != null) {
           final ResultMap resultMap = configuration.getResultMap(constructorMapping.getNestedResultMapId());
           value = getRowValue(rsw, resultMap);
         } else {
-          final TypeHandler<?> typeHandler = constructorMapping.getTypeHandler();
-          value = typeHandler.getResult(rsw.getResultSet(), prependPrefix(column, columnPrefix));
+          value = getColumnValue(rsw, constructorMapping.getTypeHandler(), column, columnPrefix);
         }
       } catch (ResultMapException e) {
         throw new ExecutorException("Could not process result for mapping: " + constructorMapping, e);
@@ -674,7 +796,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       Class<?> parameterType = constructor.getParameterTypes()[i];
       String columnName = rsw.getColumnNames().get(i);
       TypeHandler<?> typeHandler = rsw.getTypeHandler(parameterType, columnName);
-      Object value = typeHandler.getResult(rsw.getResultSet(), prependPrefix(columnName, columnPrefix));
+      Object value = getColumnValue(rsw, typeHandler, columnName, columnPrefix);
       constructorArgTypes.add(parameterType);
       constructorArgs.add(value);
       foundValues = value != null || foundValues;
@@ -716,27 +838,26 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private Object createPrimitiveResultObject(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
     final Class<?> resultType = resultMap.getType();
-    final String columnName;
     if (!resultMap.getResultMappings().isEmpty()) {
       final List<ResultMapping> resultMappingList = resultMap.getResultMappings();
       final ResultMapping mapping = resultMappingList.get(0);
-      columnName = prependPrefix(mapping.getColumn(), columnPrefix);
+      final TypeHandler<?> typeHandler = rsw.getTypeHandler(resultType, prependPrefix(mapping.getColumn(), columnPrefix));
+      return getColumnValue(rsw, typeHandler, mapping.getColumn(), columnPrefix);
     } else {
-      columnName = rsw.getColumnNames().get(0);
+      final TypeHandler<?> typeHandler = rsw.getTypeHandler(resultType, rsw.getColumnNames().get(0));
+      return typeHandler.getResult(rsw.getResultSet(), 1);
     }
-    final TypeHandler<?> typeHandler = rsw.getTypeHandler(resultType, columnName);
-    return typeHandler.getResult(rsw.getResultSet(), columnName);
   }
 
   //
   // NESTED QUERY
   //
 
-  private Object getNestedQueryConstructorValue(ResultSet rs, ResultMapping constructorMapping, String columnPrefix) throws SQLException {
+  private Object getNestedQueryConstructorValue(ResultSetWrapper rsw, ResultMapping constructorMapping, String columnPrefix) throws SQLException {
     final String nestedQueryId = constructorMapping.getNestedQueryId();
     final MappedStatement nestedQuery = configuration.getMappedStatement(nestedQueryId);
     final Class<?> nestedQueryParameterType = nestedQuery.getParameterMap().getType();
-    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rs, constructorMapping, nestedQueryParameterType, columnPrefix);
+    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rsw, constructorMapping, nestedQueryParameterType, columnPrefix);
     Object value = null;
     if (nestedQueryParameterObject != null) {
       final BoundSql nestedBoundSql = nestedQuery.getBoundSql(nestedQueryParameterObject);
@@ -748,15 +869,17 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
-  private Object getNestedQueryMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
+  private Object getNestedQueryMappingValue(ResultSetWrapper rsw, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
     final String nestedQueryId = propertyMapping.getNestedQueryId();
     final String property = propertyMapping.getProperty();
     final MappedStatement nestedQuery = configuration.getMappedStatement(nestedQueryId);
     final Class<?> nestedQueryParameterType = nestedQuery.getParameterMap().getType();
-    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rs, propertyMapping, nestedQueryParameterType, columnPrefix);
+    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rsw, propertyMapping, nestedQueryParameterType, columnPrefix);
     Object value = null;
-    if (nestedQueryParameterObject != null) {
+    if (nestedQueryParameterObject != null && propertyMapping.getBatchKey() != null && property != null) {
+      value = addToNestedQueryBatch(metaResultObject, propertyMapping, nestedQuery, nestedQueryParameterObject, lazyLoader);
+    } else if (nestedQueryParameterObject != null) {
       final BoundSql nestedBoundSql = nestedQuery.getBoundSql(nestedQueryParameterObject);
       final CacheKey key = executor.createCacheKey(nestedQuery, nestedQueryParameterObject, RowBounds.DEFAULT, nestedBoundSql);
       final Class<?> targetType = propertyMapping.getJavaType();
@@ -766,8 +889,15 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       } else {
         final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
         if (propertyMapping.isLazy()) {
-          lazyLoader.addLoader(property, metaResultObject, resultLoader);
+          lazyLoader.addLoader(property, metaResultObject, resultLoader, getResultLoaderGroup(propertyMapping));
           value = DEFERED;
+        } else if (parallelNestedQueries != null && property != null) {
+          if (parallelNestedQueries.isLoaded(key, targetType)) {
+            value = parallelNestedQueries.getLoadedResult(key, targetType);
+          } else {
+            parallelNestedQueries.add(metaResultObject, property, key, targetType, resultLoader);
+            value = PENDING;
+          }
         } else {
           value = resultLoader.loadResult();
         }
@@ -776,32 +906,61 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
-  private Object prepareParameterForNestedQuery(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
+  private Object addToNestedQueryBatch(MetaObject metaResultObject, ResultMapping propertyMapping, MappedStatement nestedQuery,
+      Object key, ResultLoaderMap lazyLoader) {
+    NestedQueryBatch batch = nestedQueryBatches.get(propertyMapping);
+    if (batch == null) {
+      batch = new NestedQueryBatch(configuration, executor, nestedQuery, propertyMapping);
+      nestedQueryBatches.put(propertyMapping, batch);
+    }
+    if (propertyMapping.isLazy()) {
+      lazyLoader.addLoader(propertyMapping.getProperty(), metaResultObject, batch.newLoader(key), getResultLoaderGroup(propertyMapping));
+    } else {
+      batch.addTarget(metaResultObject, propertyMapping.getProperty(), key);
+    }
+    return DEFERED;
+  }
+
+  private ResultLoaderGroup getResultLoaderGroup(ResultMapping propertyMapping) {
+    // a group keeps all rows reachable, rows handed to a result handler or cursor are loaded one by one
+    // without a batchKey every sibling would run a select of its own, those are loaded one by one too
+    if (!configuration.isBatchLazyLoading() || !batchNestedQueriesAcrossRows || propertyMapping.getBatchKey() == null) {
+      return null;
+    }
+    ResultLoaderGroup group = resultLoaderGroups.get(propertyMapping);
+    if (group == null) {
+      group = new ResultLoaderGroup();
+      resultLoaderGroups.put(propertyMapping, group);
+    }
+    return group;
+  }
+
+  private Object prepareParameterForNestedQuery(ResultSetWrapper rsw, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     if (resultMapping.isCompositeResult()) {
-      return prepareCompositeKeyParameter(rs, resultMapping, parameterType, columnPrefix);
+      return prepareCompositeKeyParameter(rsw, resultMapping, parameterType, columnPrefix);
     } else {
-      return prepareSimpleKeyParameter(rs, resultMapping, parameterType, columnPrefix);
+      return prepareSimpleKeyParameter(rsw, resultMapping, parameterType, columnPrefix);
     }
   }
 
-  private Object prepareSimpleKeyParameter(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
+  private Object prepareSimpleKeyParameter(ResultSetWrapper rsw, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     final TypeHandler<?> typeHandler;
     if (typeHandlerRegistry.hasTypeHandler(parameterType)) {
       typeHandler = typeHandlerRegistry.getTypeHandler(parameterType);
     } else {
       typeHandler = typeHandlerRegistry.getUnknownTypeHandler();
     }
-    return typeHandler.getResult(rs, prependPrefix(resultMapping.getColumn(), columnPrefix));
+    return getColumnValue(rsw, typeHandler, resultMapping.getColumn(), columnPrefix);
   }
 
-  private Object prepareCompositeKeyParameter(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
+  private Object prepareCompositeKeyParameter(ResultSetWrapper rsw, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     final Object parameterObject = instantiateParameterObject(parameterType);
     final MetaObject metaObject = configuration.newMetaObject(parameterObject);
     boolean foundValues = false;
     for (ResultMapping innerResultMapping : resultMapping.getComposites()) {
       final Class<?> propType = metaObject.getSetterType(innerResultMapping.getProperty());
       final TypeHandler<?> typeHandler = typeHandlerRegistry.getTypeHandler(propType);
-      final Object propValue = typeHandler.getResult(rs, prependPrefix(innerResultMapping.getColumn(), columnPrefix));
+      final Object propValue = getColumnValue(rsw, typeHandler, innerResultMapping.getColumn(), columnPrefix);
       // issue #353 & #560 do not execute nested query if key is null
       if (propValue != null) {
         metaObject.setValue(innerResultMapping.getProperty(), propValue);
@@ -826,10 +985,17 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   public ResultMap resolveDiscriminatedResultMap(ResultSet rs, ResultMap resultMap, String columnPrefix) throws SQLException {
+    if (resultMap.getDiscriminator() == null) {
+      return resultMap;
+    }
+    return resolveDiscriminatedResultMap(new ResultSetWrapper(rs, configuration), resultMap, columnPrefix);
+  }
+
+  public ResultMap resolveDiscriminatedResultMap(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
     Set<String> pastDiscriminators = new HashSet<String>();
     Discriminator discriminator = resultMap.getDiscriminator();
     while (discriminator != null) {
-      final Object value = getDiscriminatorValue(rs, discriminator, columnPrefix);
+      final Object value = getDiscriminatorValue(rsw, discriminator, columnPrefix);
       final String discriminatedMapId = discriminator.getMapIdFor(String.valueOf(value));
       if (configuration.hasResultMap(discriminatedMapId)) {
         resultMap = configuration.getResultMap(discriminatedMapId);
@@ -845,10 +1011,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return resultMap;
   }
 
-  private Object getDiscriminatorValue(ResultSet rs, Discriminator discriminator, String columnPrefix) throws SQLException {
+  private Object getDiscriminatorValue(ResultSetWrapper rsw, Discriminator discriminator, String columnPrefix) throws SQLException {
     final ResultMapping resultMapping = discriminator.getResultMapping();
-    final TypeHandler<?> typeHandler = resultMapping.getTypeHandler();
-    return typeHandler.getResult(rs, prependPrefix(resultMapping.getColumn(), columnPrefix));
+    return getColumnValue(rsw, resultMapping.getTypeHandler(), resultMapping.getColumn(), columnPrefix);
   }
 
   private String prependPrefix(String columnName, String prefix) {
@@ -867,13 +1032,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     skipRows(rsw.getResultSet(), rowBounds);
     Object rowValue = previousRowValue;
     while (shouldProcessMoreRows(resultContext, rowBounds) && rsw.getResultSet().next()) {
-      final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw.getResultSet(), resultMap, null);
+      final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw, resultMap, null);
       final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
       Object partialObject = nestedResultObjects.get(rowKey);
       // issue #577 && #542
       if (mappedStatement.isResultOrdered()) {
         if (partialObject == null && rowValue != null) {
           nestedResultObjects.clear();
+          streamedNestedKeys.clear();
           storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw.getResultSet());
         }
         rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
@@ -905,7 +1071,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       applyNestedResultMappings(rsw, resultMap, metaObject, columnPrefix, combinedKey, false);
       ancestorObjects.remove(resultMapId);
     } else {
-      final ResultLoaderMap lazyLoader = new ResultLoaderMap();
+      final ResultLoaderMap lazyLoader = new ResultLoaderMap(resultMap.getLazyProperties());
       rowValue = createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
       if (rowValue != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
         final MetaObject metaObject = configuration.newMetaObject(rowValue);
@@ -942,7 +1108,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       if (nestedResultMapId != null && resultMapping.getResultSet() == null) {
         try {
           final String columnPrefix = getColumnPrefix(parentPrefix, resultMapping);
-          final ResultMap nestedResultMap = getNestedResultMap(rsw.getResultSet(), nestedResultMapId, columnPrefix);
+          final ResultMap nestedResultMap = getNestedResultMap(rsw, nestedResultMapId, columnPrefix);
           if (resultMapping.getColumnPrefix() == null) {
             // try to fill circular reference only when columnPrefix
             // is not specified for the nested result map (issue #215)
@@ -965,6 +1131,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
               linkObjects(metaObject, resultMapping, rowValue);
               foundValues = true;
             }
+            if (!knownValue && mappedStatement.isResultStreaming()) {
+              releasePreviousNestedObject(parentRowKey, resultMapping, combinedKey);
+            }
           }
         } catch (SQLException e) {
           throw new ExecutorException("Error getting nested result map values for '" + resultMapping.getProperty() + "'.  Cause: " + e, e);
@@ -974,7 +1143,50 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
+  /**
+   * A streamed result starts a new nested object only after the previous one of the same property is complete,
+   * so the previous one and its nested objects are no longer needed to merge rows.
+   */
+  private void releasePreviousNestedObject(CacheKey parentRowKey, ResultMapping resultMapping, CacheKey combinedKey) {
+    if (combinedKey == CacheKey.NULL_CACHE_KEY) {
+      return;
+    }
+    Map<String, CacheKey> nestedKeys = streamedNestedKeys.get(parentRowKey);
+    if (nestedKeys == null) {
+      nestedKeys = new HashMap<String, CacheKey>();
+      streamedNestedKeys.put(parentRowKey, nestedKeys);
+    }
+    CacheKey previousKey = nestedKeys.put(resultMapping.getProperty(), combinedKey);
+    if (previousKey != null && !previousKey.equals(combinedKey)) {
+      releaseNestedObject(previousKey);
+    }
+  }
+
+  private void releaseNestedObject(CacheKey rowKey) {
+    nestedResultObjects.remove(rowKey);
+    Map<String, CacheKey> nestedKeys = streamedNestedKeys.remove(rowKey);
+    if (nestedKeys != null) {
+      for (CacheKey nestedKey : nestedKeys.values()) {
+        releaseNestedObject(nestedKey);
+      }
+    }
+  }
+
   private String getColumnPrefix(String parentPrefix, ResultMapping resultMapping) {
+    Map<String, String> prefixes = columnPrefixes.get(resultMapping);
+    if (prefixes == null) {
+      prefixes = new HashMap<String, String>();
+      columnPrefixes.put(resultMapping, prefixes);
+    }
+    String columnPrefix = prefixes.get(parentPrefix);
+    if (columnPrefix == null && !prefixes.containsKey(parentPrefix)) {
+      columnPrefix = buildColumnPrefix(parentPrefix, resultMapping);
+      prefixes.put(parentPrefix, columnPrefix);
+    }
+    return columnPrefix;
+  }
+
+  private String buildColumnPrefix(String parentPrefix, ResultMapping resultMapping) {
     final StringBuilder columnPrefixBuilder = new StringBuilder();
     if (parentPrefix != null) {
       columnPrefixBuilder.append(parentPrefix);
@@ -990,26 +1202,26 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     if (notNullColumns != null && !notNullColumns.isEmpty()) {
       ResultSet rs = rsw.getResultSet();
       for (String column : notNullColumns) {
-        rs.getObject(prependPrefix(column, columnPrefix));
+        final int columnIndex = rsw.getColumnIndex(column, columnPrefix);
+        if (columnIndex > 0) {
+          rs.getObject(columnIndex);
+        } else {
+          rs.getObject(prependPrefix(column, columnPrefix));
+        }
         if (!rs.wasNull()) {
           return true;
         }
       }
       return false;
     } else if (columnPrefix != null) {
-      for (String columnName : rsw.getColumnNames()) {
-        if (columnName.toUpperCase().startsWith(columnPrefix.toUpperCase())) {
-          return true;
-        }
-      }
-      return false;
+      return rsw.hasColumnWithPrefix(columnPrefix);
     }
     return true;
   }
 
-  private ResultMap getNestedResultMap(ResultSet rs, String nestedResultMapId, String columnPrefix) throws SQLException {
+  private ResultMap getNestedResultMap(ResultSetWrapper rsw, String nestedResultMapId, String columnPrefix) throws SQLException {
     ResultMap nestedResultMap = configuration.getResultMap(nestedResultMapId);
-    return resolveDiscriminatedResultMap(rs, nestedResultMap, columnPrefix);
+    return resolveDiscriminatedResultMap(rsw, nestedResultMap, columnPrefix);
   }
 
   //
@@ -1065,14 +1277,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         createRowKeyForMappedProperties(nestedResultMap, rsw, cacheKey, nestedResultMap.getConstructorResultMappings(),
             prependPrefix(resultMapping.getColumnPrefix(), columnPrefix));
       } else if (resultMapping.getNestedQueryId() == null) {
-        final String column = prependPrefix(resultMapping.getColumn(), columnPrefix);
+        final int columnIndex = rsw.getColumnIndex(resultMapping.getColumn(), columnPrefix);
         final TypeHandler<?> th = resultMapping.getTypeHandler();
-        List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
         // Issue #114
-        if (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
-          final Object value = th.getResult(rsw.getResultSet(), column);
+        if (columnIndex > 0) {
+          final Object value = resolveTypeHandler(rsw, th, columnIndex).getResult(rsw.getResultSet(), columnIndex);
           if (value != null || configuration.isReturnInstanceForEmptyRow()) {
-            cacheKey.update(column);
+            cacheKey.update(rsw.getColumnNames().get(columnIndex - 1));
             cacheKey.update(value);
           }
         }
@@ -1094,7 +1305,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
       if (metaType.findProperty(property, configuration.isMapUnderscoreToCamelCase()) != null) {
-        String value = rsw.getResultSet().getString(column);
+        String value = rsw.getResultSet().getString(rsw.getColumnIndex(column, null));
         if (value != null) {
           cacheKey.update(column);
           cacheKey.update(value);
@@ -1106,7 +1317,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private void createRowKeyForMap(ResultSetWrapper rsw, CacheKey cacheKey) throws SQLException {
     List<String> columnNames = rsw.getColumnNames();
     for (String columnName : columnNames) {
-      final String value = rsw.getResultSet().getString(columnName);
+      final String value = rsw.getResultSet().getString(rsw.getColumnIndex(columnName, null));
       if (value != null) {
         cacheKey.update(columnName);
         cacheKey.update(value);
@@ -0,0 +1,227 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.loader.ResultLoader;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.defaults.DefaultAsyncExecutor;
+import org.apache.ibatis.transaction.Transaction;
+
+/**
+ * Eager nested selects of one row, run concurrently instead of one after the other.
+ * <p>
+ * At most <code>parallelism</code> selects run at a time. One of them runs on the calling thread through
+ * the session's executor, the others on {@link Configuration#getAsyncExecutor()}, each through one of
+ * <code>parallelism - 1</code> worker executors. Selects that no pool thread has started by the time
+ * the calling thread waits for them are run by the calling thread, so a busy pool only loses the concurrency. A worker executor has a transaction and connection of its own
+ * that is kept for the whole query and closed by {@link #close()}. Selects run by a worker therefore do not see
+ * uncommitted changes of the calling session, may read a different snapshot than the parent statement
+ * and do not fill the session's local cache. Their results are kept by cache key for the rest of the query instead,
+ * so a key that repeats across rows is selected once.
+ */
+class ParallelNestedQueries {
+
+  private final Configuration configuration;
+  private final java.util.concurrent.Executor asyncExecutor;
+  private final int parallelism;
+  private final List<PendingLoad> pendingLoads = new ArrayList<PendingLoad>();
+  private final Executor[] workerExecutors;
+  private final Map<List<Object>, Object> loadedResults = new HashMap<List<Object>, Object>();
+
+  ParallelNestedQueries(Configuration configuration, int parallelism) {
+    this.configuration = configuration;
+    this.asyncExecutor = DefaultAsyncExecutor.of(configuration);
+    this.parallelism = parallelism;
+    this.workerExecutors = new Executor[parallelism - 1];
+  }
+
+  /**
+   * Returns true if this query has already run the select, {@link #getLoadedResult(CacheKey, Class)}
+   * then returns its result.
+   */
+  public boolean isLoaded(CacheKey key, Class<?> targetType) {
+    return loadedResults.containsKey(resultKey(key, targetType));
+  }
+
+  public Object getLoadedResult(CacheKey key, Class<?> targetType) {
+    return loadedResults.get(resultKey(key, targetType));
+  }
+
+  public void add(MetaObject metaObject, String property, CacheKey key, Class<?> targetType, ResultLoader resultLoader) {
+    pendingLoads.add(new PendingLoad(metaObject, property, resultKey(key, targetType), resultLoader));
+  }
+
+  public boolean isEmpty() {
+    return pendingLoads.isEmpty();
+  }
+
+  /**
+   * Runs all pending selects and sets their results.
+   *
+   * @return true if any select returned a value
+   */
+  public boolean loadAll() throws SQLException {
+    try {
+      boolean foundValues = false;
+      List<PendingLoad> loads = new ArrayList<PendingLoad>();
+      List<PendingLoad> repeatedLoads = new ArrayList<PendingLoad>();
+      Set<List<Object>> resultKeys = new HashSet<List<Object>>();
+      for (PendingLoad load : pendingLoads) {
+        if (resultKeys.add(load.resultKey)) {
+          loads.add(load);
+        } else {
+          repeatedLoads.add(load);
+        }
+      }
+      for (int start = 0; start < loads.size(); start += parallelism) {
+        int end = Math.min(start + parallelism, loads.size());
+        List<FutureTask<Object>> tasks = new ArrayList<FutureTask<Object>>(end - start);
+        for (int i = start; i < end; i++) {
+          final PendingLoad load = loads.get(i);
+          if (i < end - 1) {
+            final Executor workerExecutor = workerExecutor(i - start);
+            FutureTask<Object> task = new FutureTask<Object>(new Callable<Object>() {
+              @Override
+              public Object call() throws Exception {
+                return load.resultLoader.loadResult(workerExecutor);
+              }
+            });
+            tasks.add(task);
+            asyncExecutor.execute(task);
+          } else {
+            tasks.add(new FutureTask<Object>(new Callable<Object>() {
+              @Override
+              public Object call() throws Exception {
+                return load.resultLoader.loadResult();
+              }
+            }));
+          }
+        }
+        Throwable failure = null;
+        for (int i = start; i < end; i++) {
+          try {
+            PendingLoad load = loads.get(i);
+            FutureTask<Object> task = tasks.get(i - start);
+            // a task no pool thread has started yet runs here, waiting for it could deadlock a bounded pool
+            // whose threads are themselves waiting on this thread
+            task.run();
+            Object value = task.get();
+            loadedResults.put(load.resultKey, value);
+            foundValues |= load.apply(value);
+          } catch (ExecutionException e) {
+            if (failure == null) {
+              failure = e.getCause();
+            }
+          }
+        }
+        if (failure instanceof SQLException) {
+          throw (SQLException) failure;
+        } else if (failure instanceof RuntimeException) {
+          throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+          throw (Error) failure;
+        } else if (failure != null) {
+          throw new ExecutorException("Error loading nested query.  Cause: " + failure, failure);
+        }
+      }
+      for (PendingLoad load : repeatedLoads) {
+        foundValues |= load.apply(loadedResults.get(load.resultKey));
+      }
+      return foundValues;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExecutorException("Interrupted while loading nested queries.", e);
+    } finally {
+      pendingLoads.clear();
+    }
+  }
+
+  /**
+   * Closes the worker executors and their connections.
+   */
+  public void close() {
+    for (int i = 0; i < workerExecutors.length; i++) {
+      if (workerExecutors[i] != null) {
+        workerExecutors[i].close(false);
+        workerExecutors[i] = null;
+      }
+    }
+    loadedResults.clear();
+  }
+
+  private List<Object> resultKey(CacheKey key, Class<?> targetType) {
+    return Arrays.<Object>asList(key, targetType);
+  }
+
+  private Executor workerExecutor(int worker) {
+    if (workerExecutors[worker] == null) {
+      final Environment environment = configuration.getEnvironment();
+      if (environment == null) {
+        throw new ExecutorException("Nested queries could not be loaded concurrently.  Environment was not configured.");
+      }
+      final DataSource ds = environment.getDataSource();
+      if (ds == null) {
+        throw new ExecutorException("Nested queries could not be loaded concurrently.  DataSource was not configured.");
+      }
+      final Transaction tx = environment.getTransactionFactory().newTransaction(ds, null, false);
+      workerExecutors[worker] = configuration.newExecutor(tx, ExecutorType.SIMPLE);
+    }
+    return workerExecutors[worker];
+  }
+
+  private class PendingLoad {
+    private final MetaObject metaObject;
+    private final String property;
+    private final List<Object> resultKey;
+    private final ResultLoader resultLoader;
+
+    PendingLoad(MetaObject metaObject, String property, List<Object> resultKey, ResultLoader resultLoader) {
+      this.metaObject = metaObject;
+      this.property = property;
+      this.resultKey = resultKey;
+      this.resultLoader = resultLoader;
+    }
+
+    boolean apply(Object value) {
+      if (value != null || (configuration.isCallSettersOnNulls() && !metaObject.getSetterType(property).isPrimitive())) {
+        // gcode issue #377, call setter on nulls (value is not 'found')
+        metaObject.setValue(property, value);
+      }
+      return value != null;
+    }
+  }
+
+}
@@ -48,6 +48,10 @@ public class ResultSetWrapper {
   private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<String, Map<Class<?>, TypeHandler<?>>>();
   private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<String, List<String>>();
   private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<String, List<String>>();
+  private final Map<String, Integer> columnIndexes = new HashMap<String, Integer>();
+  private final Map<String, Map<String, Integer>> prefixedColumnIndexes = new HashMap<String, Map<String, Integer>>();
+  private final Map<String, Boolean> columnPrefixes = new HashMap<String, Boolean>();
+  private TypeHandler<?>[] unknownTypeHandlers;
 
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
     super();
@@ -60,6 +64,10 @@ public class ResultSetWrapper {
       jdbcTypes.add(JdbcType.forCode(metaData.getColumnType(i)));
       classNames.add(metaData.getColumnClassName(i));
     }
+    for (int i = columnNames.size() - 1; i >= 0; i--) {
+      // like the driver, a name refers to the first column with that name
+      columnIndexes.put(columnNames.get(i).toUpperCase(Locale.ENGLISH), i + 1);
+    }
   }
 
   public ResultSet getResultSet() {
@@ -74,6 +82,10 @@ public class ResultSetWrapper {
     return Collections.unmodifiableList(classNames);
   }
 
+  public List<JdbcType> getJdbcTypes() {
+    return Collections.unmodifiableList(jdbcTypes);
+  }
+
   public JdbcType getJdbcType(String columnName) {
     for (int i = 0 ; i < columnNames.size(); i++) {
       if (columnNames.get(i).equalsIgnoreCase(columnName)) {
@@ -83,6 +95,53 @@ public class ResultSetWrapper {
     return null;
   }
 
+  /**
+   * Returns the index of the column with the given name, ignoring case.
+   *
+   * @param columnName the column name, without prefix
+   * @param columnPrefix the prefix of the column name, may be null
+   * @return the 1-based column index, or -1 if the result set has no such column
+   */
+  public int getColumnIndex(String columnName, String columnPrefix) {
+    if (columnName == null) {
+      return -1;
+    }
+    Map<String, Integer> indexes = prefixedColumnIndexes.get(columnPrefix);
+    if (indexes == null) {
+      indexes = new HashMap<String, Integer>();
+      prefixedColumnIndexes.put(columnPrefix, indexes);
+    }
+    Integer index = indexes.get(columnName);
+    if (index == null) {
+      String prefixedName = columnPrefix == null ? columnName : columnPrefix + columnName;
+      index = columnIndexes.get(prefixedName.toUpperCase(Locale.ENGLISH));
+      if (index == null) {
+        index = -1;
+      }
+      indexes.put(columnName, index);
+    }
+    return index;
+  }
+
+  /**
+   * Returns true if the name of any column starts with the prefix, ignoring case.
+   */
+  public boolean hasColumnWithPrefix(String columnPrefix) {
+    Boolean found = columnPrefixes.get(columnPrefix);
+    if (found == null) {
+      found = false;
+      final String upperColumnPrefix = columnPrefix.toUpperCase(Locale.ENGLISH);
+      for (String columnName : columnNames) {
+        if (columnName.toUpperCase(Locale.ENGLISH).startsWith(upperColumnPrefix)) {
+          found = true;
+          break;
+        }
+      }
+      columnPrefixes.put(columnPrefix, found);
+    }
+    return found;
+  }
+
   /**
    * Gets the type handler to use when reading the result set.
    * Tries to get from the TypeHandlerRegistry by searching for the property type.
@@ -107,20 +166,39 @@ public class ResultSetWrapper {
       // Replicate logic of UnknownTypeHandler#resolveTypeHandler
       // See issue #59 comment 10
       if (handler == null || handler instanceof UnknownTypeHandler) {
-        final int index = columnNames.indexOf(columnName);
-        final Class<?> javaType = resolveClass(classNames.get(index));
-        if (javaType != null && jdbcType != null) {
-          handler = typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
-        } else if (javaType != null) {
-          handler = typeHandlerRegistry.getTypeHandler(javaType);
-        } else if (jdbcType != null) {
-          handler = typeHandlerRegistry.getTypeHandler(jdbcType);
-        }
+        handler = getUnknownTypeHandler(columnNames.indexOf(columnName) + 1);
+      }
+      columnHandlers.put(propertyType, handler);
+    }
+    return handler;
+  }
+
+  /**
+   * Returns the type handler the {@link UnknownTypeHandler} resolves for the column, so that it is resolved
+   * once per result set instead of once per row.
+   *
+   * @param columnIndex the 1-based column index
+   * @return the type handler for the java and JDBC type of the column, or an {@link ObjectTypeHandler}
+   */
+  public TypeHandler<?> getUnknownTypeHandler(int columnIndex) {
+    if (unknownTypeHandlers == null) {
+      unknownTypeHandlers = new TypeHandler<?>[columnNames.size()];
+    }
+    TypeHandler<?> handler = unknownTypeHandlers[columnIndex - 1];
+    if (handler == null) {
+      final JdbcType jdbcType = jdbcTypes.get(columnIndex - 1);
+      final Class<?> javaType = resolveClass(classNames.get(columnIndex - 1));
+      if (javaType != null && jdbcType != null) {
+        handler = typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
+      } else if (javaType != null) {
+        handler = typeHandlerRegistry.getTypeHandler(javaType);
+      } else if (jdbcType != null) {
+        handler = typeHandlerRegistry.getTypeHandler(jdbcType);
       }
       if (handler == null || handler instanceof UnknownTypeHandler) {
         handler = new ObjectTypeHandler();
       }
-      columnHandlers.put(propertyType, handler);
+      unknownTypeHandlers[columnIndex - 1] = handler;
     }
     return handler;
   }
@@ -0,0 +1,34 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a result set to a new result object.
+ * <p>
+ * Implementations are generated by {@link RowMapperCompiler} for one result map and one set of columns.
+ */
+public interface RowMapper {
+
+  /**
+   * @param rs a result set positioned on the row to map
+   * @return the result object, or null if the row holds no value and empty rows are not returned as instances
+   */
+  Object mapRow(ResultSet rs) throws SQLException;
+
+}
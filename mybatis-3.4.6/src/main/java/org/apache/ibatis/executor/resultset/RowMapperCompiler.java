@@ -0,0 +1,263 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.property.PropertyNamer;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Generates and caches a {@link RowMapper} class per result map and set of columns.
+ * <p>
+ * The generated class reads each mapped column by index with its resolved {@link TypeHandler}
+ * and calls the constructor and setters of the result type directly, instead of going through
+ * {@link org.apache.ibatis.reflection.MetaObject}. Only flat result maps of public JavaBeans are compiled:
+ * discriminators, constructor mappings, nested result maps, nested selects, nested property paths
+ * and custom object factories or wrappers are left to {@link DefaultResultSetHandler}.
+ * Compilation needs Javassist on the classpath.
+ */
+public class RowMapperCompiler {
+
+  private static final Log log = LogFactory.getLog(RowMapperCompiler.class);
+
+  /**
+   * No more classes are generated once this many column sets have been seen.
+   */
+  private static final int MAX_ROW_MAPPERS = 1024;
+
+  /**
+   * Cached for column sets whose rows are mapped by {@link DefaultResultSetHandler}.
+   */
+  private static final Object INTERPRETED = new Object();
+
+  private final Configuration configuration;
+  private final ConcurrentMap<List<Object>, Object> rowMappers = new ConcurrentHashMap<List<Object>, Object>();
+  private final boolean javassistAvailable;
+
+  public RowMapperCompiler(Configuration configuration) {
+    this.configuration = configuration;
+    this.javassistAvailable = isJavassistAvailable();
+  }
+
+  private static boolean isJavassistAvailable() {
+    try {
+      Resources.classForName("javassist.ClassPool");
+      return true;
+    } catch (Throwable e) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns true if rows of the result map can be mapped by a generated class.
+   * The columns of the result set are not considered.
+   */
+  public boolean isCompilable(ResultMap resultMap) {
+    if (!javassistAvailable
+        || resultMap.getDiscriminator() != null
+        || resultMap.hasNestedResultMaps()
+        || resultMap.hasNestedQueries()
+        || !resultMap.getConstructorResultMappings().isEmpty()
+        || !configuration.isUseColumnLabel()
+        || !DefaultObjectFactory.class.equals(configuration.getObjectFactory().getClass())
+        || !DefaultObjectWrapperFactory.class.equals(configuration.getObjectWrapperFactory().getClass())
+        || !isCompilableType(resultMap.getType())) {
+      return false;
+    }
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      String property = propertyMapping.getProperty();
+      if (propertyMapping.isCompositeResult()
+          || propertyMapping.getResultSet() != null
+          || (property != null && (property.indexOf('.') != -1 || property.indexOf('[') != -1))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isCompilableType(Class<?> type) {
+    if (type.isInterface() || type.isArray() || type.isPrimitive()
+        || !Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers())
+        || (type.getEnclosingClass() != null && !Modifier.isStatic(type.getModifiers()))
+        || Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type)
+        || type.getClassLoader() == null) {
+      return false;
+    }
+    try {
+      Constructor<?> constructor = type.getConstructor();
+      return Modifier.isPublic(constructor.getModifiers());
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns the row mapper already compiled for the result map and the columns of the result set, or null.
+   */
+  public RowMapper getRowMapper(ResultMap resultMap, ResultSetWrapper rsw) {
+    return asRowMapper(rowMappers.get(createKey(resultMap, rsw)));
+  }
+
+  /**
+   * Returns the row mapper for the result map and the columns of the result set, generating it on first use.
+   *
+   * @param resultMap a result map accepted by {@link #isCompilable(ResultMap)}
+   * @param rsw the result set
+   * @param autoMappings the columns auto-mapped to properties, applied before the property mappings
+   * @return the row mapper, or null if the rows have to be mapped by {@link DefaultResultSetHandler}
+   */
+  public RowMapper compile(ResultMap resultMap, ResultSetWrapper rsw, List<ColumnMapping> autoMappings) throws SQLException {
+    List<Object> key = createKey(resultMap, rsw);
+    Object rowMapper = rowMappers.get(key);
+    if (rowMapper == null) {
+      if (rowMappers.size() >= MAX_ROW_MAPPERS) {
+        return null;
+      }
+      rowMapper = generate(resultMap, rsw, autoMappings);
+      if (rowMapper == null) {
+        rowMapper = INTERPRETED;
+      }
+      Object previous = rowMappers.putIfAbsent(key, rowMapper);
+      if (previous != null) {
+        rowMapper = previous;
+      }
+    }
+    return asRowMapper(rowMapper);
+  }
+
+  private static RowMapper asRowMapper(Object rowMapper) {
+    return rowMapper == INTERPRETED ? null : (RowMapper) rowMapper;
+  }
+
+  private List<Object> createKey(ResultMap resultMap, ResultSetWrapper rsw) {
+    return Arrays.<Object>asList(resultMap, rsw.getColumnNames(), rsw.getClassNames(), rsw.getJdbcTypes(),
+        configuration.isCallSettersOnNulls(), configuration.isReturnInstanceForEmptyRow(),
+        configuration.getAutoMappingUnknownColumnBehavior());
+  }
+
+  private RowMapper generate(ResultMap resultMap, ResultSetWrapper rsw, List<ColumnMapping> autoMappings) throws SQLException {
+    Class<?> type = resultMap.getType();
+    MetaClass metaClass = MetaClass.forClass(type, configuration.getReflectorFactory());
+    List<ColumnMapping> columnMappings = new ArrayList<ColumnMapping>(autoMappings);
+    List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, null);
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      String column = propertyMapping.getColumn();
+      if (propertyMapping.getProperty() != null && column != null
+          && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+        columnMappings.add(new ColumnMapping(column, propertyMapping.getProperty(), propertyMapping.getTypeHandler()));
+      }
+    }
+    List<RowMapperGenerator.Slot> slots = new ArrayList<RowMapperGenerator.Slot>(columnMappings.size());
+    for (ColumnMapping columnMapping : columnMappings) {
+      int columnIndex = indexOf(rsw.getColumnNames(), columnMapping.column);
+      Method setter = metaClass.hasSetter(columnMapping.property) ? findSetter(type, columnMapping.property, metaClass.getSetterType(columnMapping.property)) : null;
+      if (columnIndex == -1 || setter == null) {
+        if (log.isDebugEnabled()) {
+          log.debug("Result map '" + resultMap.getId() + "' is not compiled, property '" + columnMapping.property + "' needs reflection.");
+        }
+        return null;
+      }
+      slots.add(new RowMapperGenerator.Slot(columnIndex + 1, setter, columnMapping.typeHandler));
+    }
+    try {
+      RowMapper rowMapper = RowMapperGenerator.generate(type, slots,
+          configuration.isCallSettersOnNulls(), configuration.isReturnInstanceForEmptyRow());
+      if (log.isDebugEnabled()) {
+        log.debug("Compiled row mapper " + rowMapper.getClass().getName() + " for result map '" + resultMap.getId() + "'.");
+      }
+      return rowMapper;
+    } catch (Exception e) {
+      if (log.isDebugEnabled()) {
+        log.debug("Result map '" + resultMap.getId() + "' is not compiled.  Cause: " + e);
+      }
+      return null;
+    }
+  }
+
+  private static int indexOf(List<String> columnNames, String column) {
+    for (int i = 0; i < columnNames.size(); i++) {
+      if (columnNames.get(i).equalsIgnoreCase(column)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the only public setter of the property that accepts the setter type resolved by the reflector, or null.
+   */
+  private static Method findSetter(Class<?> type, String property, Class<?> setterType) {
+    Method setter = null;
+    for (Method method : type.getMethods()) {
+      if (method.isBridge() || Modifier.isStatic(method.getModifiers())
+          || method.getParameterTypes().length != 1
+          || !PropertyNamer.isSetter(method.getName())
+          || !property.equals(PropertyNamer.methodToProperty(method.getName()))) {
+        continue;
+      }
+      if (setter != null) {
+        return null;
+      }
+      setter = method;
+    }
+    if (setter == null || !Modifier.isPublic(setter.getDeclaringClass().getModifiers())
+        || !box(setter.getParameterTypes()[0]).isAssignableFrom(box(setterType))) {
+      return null;
+    }
+    return setter;
+  }
+
+  private static Class<?> box(Class<?> type) {
+    return type.isPrimitive() ? RowMapperGenerator.WRAPPERS.get(type) : type;
+  }
+
+  /**
+   * A column mapped to a simple property of the result object.
+   */
+  public static class ColumnMapping {
+    private final String column;
+    private final String property;
+    private final TypeHandler<?> typeHandler;
+
+    public ColumnMapping(String column, String property, TypeHandler<?> typeHandler) {
+      this.column = column;
+      this.property = property;
+      this.typeHandler = typeHandler;
+    }
+  }
+
+}
@@ -0,0 +1,209 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.BooleanResultReader;
+import org.apache.ibatis.type.ByteResultReader;
+import org.apache.ibatis.type.DoubleResultReader;
+import org.apache.ibatis.type.FloatResultReader;
+import org.apache.ibatis.type.IntResultReader;
+import org.apache.ibatis.type.LongResultReader;
+import org.apache.ibatis.type.ShortResultReader;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Generates the source of a {@link RowMapper} and compiles it with Javassist.
+ * <p>
+ * Only referenced by {@link RowMapperCompiler} once Javassist is known to be on the classpath.
+ */
+final class RowMapperGenerator {
+
+  static final Map<Class<?>, Class<?>> WRAPPERS = new HashMap<Class<?>, Class<?>>();
+
+  static {
+    WRAPPERS.put(boolean.class, Boolean.class);
+    WRAPPERS.put(byte.class, Byte.class);
+    WRAPPERS.put(char.class, Character.class);
+    WRAPPERS.put(short.class, Short.class);
+    WRAPPERS.put(int.class, Integer.class);
+    WRAPPERS.put(long.class, Long.class);
+    WRAPPERS.put(float.class, Float.class);
+    WRAPPERS.put(double.class, Double.class);
+  }
+
+  private static final Map<Class<?>, Class<?>> READERS = new HashMap<Class<?>, Class<?>>();
+
+  static {
+    READERS.put(boolean.class, BooleanResultReader.class);
+    READERS.put(byte.class, ByteResultReader.class);
+    READERS.put(short.class, ShortResultReader.class);
+    READERS.put(int.class, IntResultReader.class);
+    READERS.put(long.class, LongResultReader.class);
+    READERS.put(float.class, FloatResultReader.class);
+    READERS.put(double.class, DoubleResultReader.class);
+  }
+
+  private static final AtomicInteger classCounter = new AtomicInteger();
+
+  private RowMapperGenerator() {
+    // Prevent Instantiation of Static Class
+  }
+
+  static RowMapper generate(Class<?> type, List<Slot> slots, boolean callSettersOnNulls, boolean returnInstanceForEmptyRow) throws Exception {
+    ClassPool pool = new ClassPool(false);
+    pool.appendSystemPath();
+    pool.appendClassPath(new ClassClassPath(RowMapper.class));
+    pool.appendClassPath(new LoaderClassPath(type.getClassLoader()));
+    String className = RowMapper.class.getName() + "$$" + type.getSimpleName() + "$$" + classCounter.incrementAndGet();
+    CtClass ctClass = pool.makeClass(className);
+    ctClass.addInterface(pool.get(RowMapper.class.getName()));
+
+    StringBuilder constructor = new StringBuilder("public " + className.substring(className.lastIndexOf('.') + 1) + "(")
+        .append(TypeHandler.class.getName()).append("[] typeHandlers) {");
+    for (int i = 0; i < slots.size(); i++) {
+      ctClass.addField(CtField.make("private final " + TypeHandler.class.getName() + " typeHandler" + i + ";", ctClass));
+      constructor.append("typeHandler").append(i).append(" = $1[").append(i).append("];");
+    }
+    ctClass.addConstructor(CtNewConstructor.make(constructor.append('}').toString(), ctClass));
+
+    String typeName = sourceName(type);
+    StringBuilder method = new StringBuilder("public Object mapRow(java.sql.ResultSet rs) throws java.sql.SQLException {")
+        .append(typeName).append(" row = new ").append(typeName).append("();")
+        .append("boolean found = false;")
+        .append("Object value;");
+    for (int i = 0; i < slots.size(); i++) {
+      Slot slot = slots.get(i);
+      Class<?> parameterType = slot.setter.getParameterTypes()[0];
+      Method reader = getReader(slot.typeHandler, parameterType);
+      if (reader != null) {
+        method.append(parameterType.getName()).append(" primitive").append(i).append(" = ((").append(reader.getDeclaringClass().getName()).append(") typeHandler")
+            .append(i).append(").").append(reader.getName()).append("($1, ").append(slot.columnIndex).append(");")
+            .append("if (!$1.wasNull()) {")
+            .append("row.").append(slot.setter.getName()).append("(primitive").append(i).append(");")
+            .append("found = true;")
+            .append('}');
+        continue;
+      }
+      method.append("value = typeHandler").append(i).append(".getResult($1, ").append(slot.columnIndex).append(");")
+          .append("if (value != null) {")
+          .append("row.").append(slot.setter.getName()).append('(').append(unwrap(parameterType, "value")).append(");")
+          .append("found = true;")
+          .append('}');
+      if (callSettersOnNulls && !parameterType.isPrimitive()) {
+        method.append(" else {")
+            .append("row.").append(slot.setter.getName()).append("((").append(sourceName(parameterType)).append(") null);")
+            .append('}');
+      }
+    }
+    method.append(returnInstanceForEmptyRow ? "return row;" : "return found ? row : null;").append('}');
+    ctClass.addMethod(CtNewMethod.make(method.toString(), ctClass));
+
+    byte[] bytecode = ctClass.toBytecode();
+    ctClass.detach();
+    Class<?> rowMapperClass = new RowMapperClassLoader(type.getClassLoader()).define(className, bytecode);
+    TypeHandler<?>[] typeHandlers = new TypeHandler<?>[slots.size()];
+    for (int i = 0; i < slots.size(); i++) {
+      typeHandlers[i] = slots.get(i).typeHandler;
+    }
+    return (RowMapper) rowMapperClass.getConstructor(TypeHandler[].class).newInstance(new Object[] { typeHandlers });
+  }
+
+  /**
+   * Returns the method of the handler's primitive reader for the property type, or null if the handler has none
+   * or a subclass overrides how the handler reads results.
+   */
+  static Method getReader(TypeHandler<?> typeHandler, Class<?> propertyType) {
+    Class<?> readerType = READERS.get(propertyType);
+    if (readerType == null || !readerType.isInstance(typeHandler)) {
+      return null;
+    }
+    try {
+      Class<?> handlerType = typeHandler.getClass();
+      Method reader = readerType.getMethods()[0];
+      Class<?> readerClass = handlerType.getMethod(reader.getName(), ResultSet.class, int.class).getDeclaringClass();
+      if (!handlerType.getMethod("getResult", ResultSet.class, int.class).getDeclaringClass().isAssignableFrom(readerClass)) {
+        return null;
+      }
+      if (typeHandler instanceof BaseTypeHandler
+          && !handlerType.getMethod("getNullableResult", ResultSet.class, int.class).getDeclaringClass().isAssignableFrom(readerClass)) {
+        return null;
+      }
+      return reader;
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  private static String unwrap(Class<?> type, String expression) {
+    if (type.isPrimitive()) {
+      return "((" + WRAPPERS.get(type).getName() + ") " + expression + ")." + type.getName() + "Value()";
+    }
+    return "(" + sourceName(type) + ") " + expression;
+  }
+
+  private static String sourceName(Class<?> type) {
+    return type.isArray() ? sourceName(type.getComponentType()) + "[]" : type.getName();
+  }
+
+  static class Slot {
+    private final int columnIndex;
+    private final Method setter;
+    private final TypeHandler<?> typeHandler;
+
+    Slot(int columnIndex, Method setter, TypeHandler<?> typeHandler) {
+      this.columnIndex = columnIndex;
+      this.setter = setter;
+      this.typeHandler = typeHandler;
+    }
+  }
+
+  /**
+   * Defines one generated class. The class sees the classes of the result type
+   * and, if these are loaded by another class loader, the classes of MyBatis.
+   */
+  private static class RowMapperClassLoader extends ClassLoader {
+
+    RowMapperClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+      return RowMapper.class.getClassLoader().loadClass(name);
+    }
+
+    Class<?> define(String name, byte[] bytecode) {
+      return defineClass(name, bytecode, 0, bytecode.length, RowMapper.class.getProtectionDomain());
+    }
+  }
+
+}
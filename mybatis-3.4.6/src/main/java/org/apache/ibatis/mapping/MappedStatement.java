@@ -47,6 +47,7 @@ public final class MappedStatement {
   private boolean flushCacheRequired;
   private boolean useCache;
   private boolean resultOrdered;
+  private boolean resultStreaming;
   private SqlCommandType sqlCommandType;
   private KeyGenerator keyGenerator;
   private String[] keyProperties;
@@ -56,6 +57,7 @@ public final class MappedStatement {
   private Log statementLog;
   private LanguageDriver lang;
   private String[] resultSets;
+  private Integer nestedQueryParallelism;
 
   MappedStatement() {
     // constructor disabled
@@ -143,6 +145,11 @@ public final class MappedStatement {
       return this;
     }
 
+    public Builder resultStreaming(boolean resultStreaming) {
+      mappedStatement.resultStreaming = resultStreaming;
+      return this;
+    }
+
     public Builder keyGenerator(KeyGenerator keyGenerator) {
       mappedStatement.keyGenerator = keyGenerator;
       return this;
@@ -179,6 +186,11 @@ public final class MappedStatement {
       mappedStatement.resultSets = delimitedStringToArray(resultSet);
       return this;
     }
+
+    public Builder nestedQueryParallelism(Integer nestedQueryParallelism) {
+      mappedStatement.nestedQueryParallelism = nestedQueryParallelism;
+      return this;
+    }
     
     public MappedStatement build() {
       assert mappedStatement.configuration != null;
@@ -255,7 +267,16 @@ public final class MappedStatement {
   }
 
   public boolean isResultOrdered() {
-    return resultOrdered;
+    return resultOrdered || resultStreaming;
+  }
+
+  /**
+   * Returns true if the rows of a nested result map are grouped by the id of every nested object,
+   * so each completed nested object can be released as soon as the next one starts.
+   * Implies {@link #isResultOrdered()}.
+   */
+  public boolean isResultStreaming() {
+    return resultStreaming;
   }
 
   public String getDatabaseId() {
@@ -287,6 +308,14 @@ public final class MappedStatement {
   public String[] getResulSets() {
     return resultSets;
   }
+
+  /**
+   * Returns how many eager nested selects of a row may run concurrently,
+   * {@link Configuration#getNestedQueryParallelism()} unless set on the statement.
+   */
+  public int getNestedQueryParallelism() {
+    return nestedQueryParallelism == null ? configuration.getNestedQueryParallelism() : nestedQueryParallelism;
+  }
   
   public BoundSql getBoundSql(Object parameterObject) {
     BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
@@ -19,14 +19,18 @@ import java.sql.ResultSet;
 
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.ObjectTypeHandler;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.apache.ibatis.type.UnknownTypeHandler;
 
 /**
  * @author Clinton Begin
  */
 public class ParameterMapping {
 
+  private static final ObjectTypeHandler OBJECT_TYPE_HANDLER = new ObjectTypeHandler();
+
   private Configuration configuration;
 
   private String property;
@@ -38,6 +42,7 @@ public class ParameterMapping {
   private String resultMapId;
   private String jdbcTypeName;
   private String expression;
+  private volatile ResolvedTypeHandler resolvedTypeHandler;
 
   private ParameterMapping() {
   }
@@ -175,6 +180,26 @@ public class ParameterMapping {
     return typeHandler;
   }
 
+  /**
+   * Used when setting a non null value through the {@link UnknownTypeHandler}. Resolves the type handler
+   * for the class of the value as the {@link UnknownTypeHandler} does, remembering the last resolution,
+   * so a parameter that is always bound with values of the same class is resolved once.
+   * @param valueType the class of the value
+   * @return the type handler registered for the class and the jdbc type, or an {@link ObjectTypeHandler} if there is none
+   */
+  public TypeHandler<?> resolveTypeHandler(Class<?> valueType) {
+    ResolvedTypeHandler resolved = resolvedTypeHandler;
+    if (resolved == null || resolved.valueType != valueType) {
+      TypeHandler<?> handler = configuration.getTypeHandlerRegistry().getTypeHandler(valueType, jdbcType);
+      if (handler == null || handler instanceof UnknownTypeHandler) {
+        handler = OBJECT_TYPE_HANDLER;
+      }
+      resolved = new ResolvedTypeHandler(valueType, handler);
+      resolvedTypeHandler = resolved;
+    }
+    return resolved.typeHandler;
+  }
+
   /**
    * Used for handling output of callable statements
    * @return
@@ -215,4 +240,15 @@ public class ParameterMapping {
     sb.append('}');
     return sb.toString();
   }
+
+  private static class ResolvedTypeHandler {
+    private final Class<?> valueType;
+    private final TypeHandler<?> typeHandler;
+
+    ResolvedTypeHandler(Class<?> valueType, TypeHandler<?> typeHandler) {
+      this.valueType = valueType;
+      this.typeHandler = typeHandler;
+    }
+  }
+
 }
@@ -47,6 +47,7 @@ public class ResultMap {
   private List<ResultMapping> propertyResultMappings;
   private Set<String> mappedColumns;
   private Set<String> mappedProperties;
+  private Set<String> lazyProperties;
   private Discriminator discriminator;
   private boolean hasNestedResultMaps;
   private boolean hasNestedQueries;
@@ -87,6 +88,7 @@ public class ResultMap {
       }
       resultMap.mappedColumns = new HashSet<String>();
       resultMap.mappedProperties = new HashSet<String>();
+      resultMap.lazyProperties = new HashSet<String>();
       resultMap.idResultMappings = new ArrayList<ResultMapping>();
       resultMap.constructorResultMappings = new ArrayList<ResultMapping>();
       resultMap.propertyResultMappings = new ArrayList<ResultMapping>();
@@ -116,6 +118,9 @@ public class ResultMap {
           }
         } else {
           resultMap.propertyResultMappings.add(resultMapping);
+          if (resultMapping.getNestedQueryId() != null && resultMapping.isLazy() && property != null) {
+            resultMap.lazyProperties.add(property);
+          }
         }
         if (resultMapping.getFlags().contains(ResultFlag.ID)) {
           resultMap.idResultMappings.add(resultMapping);
@@ -147,6 +152,7 @@ public class ResultMap {
       resultMap.constructorResultMappings = Collections.unmodifiableList(resultMap.constructorResultMappings);
       resultMap.propertyResultMappings = Collections.unmodifiableList(resultMap.propertyResultMappings);
       resultMap.mappedColumns = Collections.unmodifiableSet(resultMap.mappedColumns);
+      resultMap.lazyProperties = Collections.unmodifiableSet(resultMap.lazyProperties);
       return resultMap;
     }
 
@@ -251,6 +257,13 @@ public class ResultMap {
     return mappedProperties;
   }
 
+  /**
+   * Returns the properties loaded by a lazy nested select.
+   */
+  public Set<String> getLazyProperties() {
+    return lazyProperties;
+  }
+
   public Discriminator getDiscriminator() {
     return discriminator;
   }
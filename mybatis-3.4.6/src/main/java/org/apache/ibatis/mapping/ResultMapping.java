@@ -45,6 +45,7 @@ public class ResultMapping {
   private String resultSet;
   private String foreignColumn;
   private boolean lazy;
+  private String batchKey;
 
   ResultMapping() {
   }
@@ -131,6 +132,11 @@ public class ResultMapping {
       resultMapping.lazy = lazy;
       return this;
     }
+
+    public Builder batchKey(String batchKey) {
+      resultMapping.batchKey = batchKey;
+      return this;
+    }
     
     public ResultMapping build() {
       // lock down collections
@@ -167,6 +173,14 @@ public class ResultMapping {
           throw new IllegalStateException("There should be the same number of columns and foreignColumns in property " + resultMapping.property);
         }
       }
+      if (resultMapping.batchKey != null) {
+        if (resultMapping.nestedQueryId == null) {
+          throw new IllegalStateException("A batchKey requires a nested select in property " + resultMapping.property);
+        }
+        if (!resultMapping.composites.isEmpty()) {
+          throw new IllegalStateException("A batchKey can not be used with a composite column in property " + resultMapping.property);
+        }
+      }
     }
     
     private void resolveTypeHandler() {
@@ -250,6 +264,14 @@ public class ResultMapping {
   public void setLazy(boolean lazy) {
     this.lazy = lazy;
   }
+
+  /**
+   * Returns the property of the nested select results that holds the key of their parent row, or null.
+   * When set, the nested select is run once for the keys of many parent rows.
+   */
+  public String getBatchKey() {
+    return batchKey;
+  }
   
   @Override
   public boolean equals(Object o) {
@@ -298,6 +320,7 @@ public class ResultMapping {
     sb.append(", resultSet='").append(resultSet).append('\'');
     sb.append(", foreignColumn='").append(foreignColumn).append('\'');
     sb.append(", lazy=").append(lazy);
+    sb.append(", batchKey='").append(batchKey).append('\'');
     sb.append('}');
     return sb.toString();
   }
@@ -18,10 +18,17 @@ package org.apache.ibatis.plugin;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ibatis.reflection.ExceptionUtil;
 
@@ -30,25 +37,34 @@ import org.apache.ibatis.reflection.ExceptionUtil;
  */
 public class Plugin implements InvocationHandler {
 
+  /**
+   * The interfaces and intercepted methods are resolved once per interceptor and target class.
+   * Interceptors are weakly held, the plans of a configuration are dropped with its interceptors.
+   */
+  private static final Map<Interceptor, ConcurrentMap<Class<?>, ProxyPlan>> proxyPlans =
+      Collections.synchronizedMap(new WeakHashMap<Interceptor, ConcurrentMap<Class<?>, ProxyPlan>>());
+
   private final Object target;
   private final Interceptor interceptor;
-  private final Map<Class<?>, Set<Method>> signatureMap;
+  private final Set<Method> methods;
+  private final Layer layer;
 
-  private Plugin(Object target, Interceptor interceptor, Map<Class<?>, Set<Method>> signatureMap) {
+  private Plugin(Object target, Interceptor interceptor, Layer layer) {
     this.target = target;
     this.interceptor = interceptor;
-    this.signatureMap = signatureMap;
+    this.methods = layer.methods;
+    this.layer = layer;
   }
 
   public static Object wrap(Object target, Interceptor interceptor) {
-    Map<Class<?>, Set<Method>> signatureMap = getSignatureMap(interceptor);
     Class<?> type = target.getClass();
-    Class<?>[] interfaces = getAllInterfaces(type, signatureMap);
-    if (interfaces.length > 0) {
+    ProxyPlan plan = getProxyPlan(interceptor, type);
+    if (plan.interfaces.length > 0) {
+      Layer innerLayer = isPluginProxy(target) ? ((Plugin) Proxy.getInvocationHandler(target)).layer : null;
       return Proxy.newProxyInstance(
           type.getClassLoader(),
-          interfaces,
-          new Plugin(target, interceptor, signatureMap));
+          plan.interfaces,
+          new Plugin(target, interceptor, plan.getLayer(innerLayer)));
     }
     return target;
   }
@@ -56,16 +72,55 @@ public class Plugin implements InvocationHandler {
   @Override
   public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
     try {
-      Set<Method> methods = signatureMap.get(method.getDeclaringClass());
-      if (methods != null && methods.contains(method)) {
+      if (methods.contains(method)) {
         return interceptor.intercept(new Invocation(target, method, args));
       }
-      return method.invoke(target, args);
+      return method.invoke(getPassThroughTarget(method), args);
     } catch (Exception e) {
       throw ExceptionUtil.unwrapThrowable(e);
     }
   }
 
+  private static ProxyPlan getProxyPlan(Interceptor interceptor, Class<?> type) {
+    ConcurrentMap<Class<?>, ProxyPlan> plans;
+    synchronized (proxyPlans) {
+      plans = proxyPlans.get(interceptor);
+      if (plans == null) {
+        plans = new ConcurrentHashMap<Class<?>, ProxyPlan>();
+        proxyPlans.put(interceptor, plans);
+      }
+    }
+    ProxyPlan plan = plans.get(type);
+    if (plan == null) {
+      Map<Class<?>, Set<Method>> signatureMap = getSignatureMap(interceptor);
+      plan = new ProxyPlan(signatureMap, getAllInterfaces(type, signatureMap));
+      ProxyPlan existing = plans.putIfAbsent(type, plan);
+      if (existing != null) {
+        plan = existing;
+      }
+    }
+    return plan;
+  }
+
+  /**
+   * When the target is the proxy of another plugin, a method that the inner plugins do not intercept
+   * is called on the nearest target that does, instead of through every proxy in between.
+   */
+  private Object getPassThroughTarget(Method method) {
+    Object passThroughTarget = target;
+    Integer depth = layer.passThroughDepths.get(method);
+    if (depth != null) {
+      for (int i = 0; i < depth; i++) {
+        passThroughTarget = ((Plugin) Proxy.getInvocationHandler(passThroughTarget)).target;
+      }
+    }
+    return passThroughTarget;
+  }
+
+  private static boolean isPluginProxy(Object target) {
+    return Proxy.isProxyClass(target.getClass()) && Proxy.getInvocationHandler(target) instanceof Plugin;
+  }
+
   private static Map<Class<?>, Set<Method>> getSignatureMap(Interceptor interceptor) {
     Intercepts interceptsAnnotation = interceptor.getClass().getAnnotation(Intercepts.class);
     // issue #251
@@ -103,4 +158,67 @@ public class Plugin implements InvocationHandler {
     return interfaces.toArray(new Class<?>[interfaces.size()]);
   }
 
+  private static class ProxyPlan {
+    private final Set<Method> methods = new HashSet<Method>();
+    private final Class<?>[] interfaces;
+    private final List<Method> proxiedMethods = new ArrayList<Method>();
+    private final Layer innermostLayer = new Layer(methods, Collections.<Method, Integer>emptyMap());
+    // layers over the proxy of another plugin, by the layer of that plugin
+    private final ConcurrentMap<Layer, Layer> layers = new ConcurrentHashMap<Layer, Layer>();
+
+    ProxyPlan(Map<Class<?>, Set<Method>> signatureMap, Class<?>[] interfaces) {
+      this.interfaces = interfaces;
+      // a method is intercepted when it is listed under the interface that declares it
+      for (Map.Entry<Class<?>, Set<Method>> entry : signatureMap.entrySet()) {
+        for (Method method : entry.getValue()) {
+          if (method.getDeclaringClass().equals(entry.getKey())) {
+            methods.add(method);
+          }
+        }
+      }
+      for (Class<?> type : interfaces) {
+        proxiedMethods.addAll(Arrays.asList(type.getMethods()));
+      }
+    }
+
+    /**
+     * Returns the layer of this plan over a target with the given layer, or over a plain target if it is null.
+     */
+    Layer getLayer(Layer innerLayer) {
+      if (innerLayer == null) {
+        return innermostLayer;
+      }
+      Layer layer = layers.get(innerLayer);
+      if (layer == null) {
+        Map<Method, Integer> passThroughDepths = new HashMap<Method, Integer>();
+        for (Method method : proxiedMethods) {
+          if (!methods.contains(method) && !innerLayer.methods.contains(method)) {
+            Integer innerDepth = innerLayer.passThroughDepths.get(method);
+            passThroughDepths.put(method, innerDepth == null ? 1 : innerDepth + 1);
+          }
+        }
+        layer = new Layer(methods, passThroughDepths);
+        Layer existing = layers.putIfAbsent(innerLayer, layer);
+        if (existing != null) {
+          layer = existing;
+        }
+      }
+      return layer;
+    }
+  }
+
+  /**
+   * A plugin's place in a chain of plugin proxies, shared by all chains of the same plans.
+   * The number of inner proxies a method that none of them intercepts skips is resolved once per chain.
+   */
+  private static class Layer {
+    private final Set<Method> methods;
+    private final Map<Method, Integer> passThroughDepths;
+
+    Layer(Set<Method> methods, Map<Method, Integer> passThroughDepths) {
+      this.methods = methods;
+      this.passThroughDepths = passThroughDepths;
+    }
+  }
+
 }
@@ -52,6 +52,38 @@ public class Jdk {
     dateAndTimeApiExists = available;
   }
 
+  /**
+   * <code>true</code> if <code>java.util.concurrent.CompletableFuture</code> is available.
+   */
+  public static final boolean completableFutureExists;
+
+  static {
+    boolean available = false;
+    try {
+      Resources.classForName("java.util.concurrent.CompletableFuture");
+      available = true;
+    } catch (ClassNotFoundException e) {
+      // ignore
+    }
+    completableFutureExists = available;
+  }
+
+  /**
+   * <code>true</code> if <code>java.lang.invoke.MethodHandle</code> is available.
+   */
+  public static final boolean methodHandleExists;
+
+  static {
+    boolean available = false;
+    try {
+      Resources.classForName("java.lang.invoke.MethodHandle");
+      available = true;
+    } catch (ClassNotFoundException e) {
+      // ignore
+    }
+    methodHandleExists = available;
+  }
+
   private Jdk() {
     super();
   }
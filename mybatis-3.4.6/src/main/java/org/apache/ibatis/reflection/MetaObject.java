@@ -23,6 +23,7 @@ import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.reflection.property.PropertyTokenizer;
 import org.apache.ibatis.reflection.wrapper.BeanWrapper;
 import org.apache.ibatis.reflection.wrapper.CollectionWrapper;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.reflection.wrapper.MapWrapper;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
@@ -37,6 +38,7 @@ public class MetaObject {
   private final ObjectFactory objectFactory;
   private final ObjectWrapperFactory objectWrapperFactory;
   private final ReflectorFactory reflectorFactory;
+  private final Reflector reflector;
 
   private MetaObject(Object object, ObjectFactory objectFactory, ObjectWrapperFactory objectWrapperFactory, ReflectorFactory reflectorFactory) {
     this.originalObject = object;
@@ -44,6 +46,7 @@ public class MetaObject {
     this.objectWrapperFactory = objectWrapperFactory;
     this.reflectorFactory = reflectorFactory;
 
+    Reflector reflector = null;
     if (object instanceof ObjectWrapper) {
       this.objectWrapper = (ObjectWrapper) object;
     } else if (objectWrapperFactory.hasWrapperFor(object)) {
@@ -53,8 +56,14 @@ public class MetaObject {
     } else if (object instanceof Collection) {
       this.objectWrapper = new CollectionWrapper(this, (Collection) object);
     } else {
-      this.objectWrapper = new BeanWrapper(this, object);
+      MetaClass metaClass = MetaClass.forClass(object.getClass(), reflectorFactory);
+      this.objectWrapper = new BeanWrapper(this, object, metaClass);
+      // compiled paths are kept on the reflector, a reflector that is not cached would compile them for nothing
+      if (objectWrapperFactory.getClass() == DefaultObjectWrapperFactory.class && reflectorFactory.isClassCacheEnabled()) {
+        reflector = metaClass.getReflector();
+      }
     }
+    this.reflector = reflector;
   }
 
   public static MetaObject forObject(Object object, ObjectFactory objectFactory, ObjectWrapperFactory objectWrapperFactory, ReflectorFactory reflectorFactory) {
@@ -110,6 +119,16 @@ public class MetaObject {
   }
 
   public Object getValue(String name) {
+    if (reflector != null) {
+      PropertyPath path = reflector.getPropertyPath(name, reflectorFactory);
+      if (path != null) {
+        return path.getValue(this);
+      }
+    }
+    return resolveValue(name);
+  }
+
+  Object resolveValue(String name) {
     PropertyTokenizer prop = new PropertyTokenizer(name);
     if (prop.hasNext()) {
       MetaObject metaValue = metaObjectForProperty(prop.getIndexedName());
@@ -124,6 +143,17 @@ public class MetaObject {
   }
 
   public void setValue(String name, Object value) {
+    if (reflector != null) {
+      PropertyPath path = reflector.getPropertyPath(name, reflectorFactory);
+      if (path != null) {
+        path.setValue(this, value);
+        return;
+      }
+    }
+    assignValue(name, value);
+  }
+
+  void assignValue(String name, Object value) {
     PropertyTokenizer prop = new PropertyTokenizer(name);
     if (prop.hasNext()) {
       MetaObject metaValue = metaObjectForProperty(prop.getIndexedName());
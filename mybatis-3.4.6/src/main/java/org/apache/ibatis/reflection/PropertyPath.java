@@ -0,0 +1,170 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
+
+/**
+ * A property path like <code>author.address.city</code> compiled against a bean class.
+ * <p>
+ * Every segment is bound to the invokers of the class that declares it, so nested bean properties are read
+ * and written without tokenizing the path or creating a {@link MetaObject} per segment. A segment value is only
+ * navigated further while its runtime class is the declared type the path was compiled for; otherwise the rest
+ * of the path is resolved through {@link MetaObject}, which also instantiates missing values on writes.
+ */
+public final class PropertyPath {
+
+  static final PropertyPath NONE = new PropertyPath(new String[0], new String[0], new Reflector[0], new Invoker[0], null);
+
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  private final String[] names;
+  private final String[] paths;
+  private final Reflector[] reflectors;
+  private final Invoker[] getters;
+  private final Invoker setter;
+
+  private PropertyPath(String[] names, String[] paths, Reflector[] reflectors, Invoker[] getters, Invoker setter) {
+    this.names = names;
+    this.paths = paths;
+    this.reflectors = reflectors;
+    this.getters = getters;
+    this.setter = setter;
+  }
+
+  /**
+   * Returns the compiled path, or {@link #NONE} if it contains indexed properties or navigates through
+   * values that are not plain beans.
+   */
+  static PropertyPath compile(Reflector root, ReflectorFactory reflectorFactory, String name) {
+    if (name.indexOf('[') > -1) {
+      return NONE;
+    }
+    String[] names = name.split("\\.", -1);
+    String[] paths = new String[names.length];
+    Reflector[] reflectors = new Reflector[names.length];
+    Invoker[] getters = new Invoker[names.length];
+    Reflector reflector = root;
+    int start = 0;
+    for (int i = 0; i < names.length; i++) {
+      if (names[i].length() == 0) {
+        return NONE;
+      }
+      paths[i] = name.substring(start);
+      start += names[i].length() + 1;
+      reflectors[i] = reflector;
+      if (reflector.hasGetter(names[i])) {
+        getters[i] = reflector.getGetInvoker(names[i]);
+      }
+      if (i < names.length - 1) {
+        if (getters[i] == null || !isBean(reflector.getGetterType(names[i]))) {
+          return NONE;
+        }
+        reflector = reflectorFactory.findForClass(reflector.getGetterType(names[i]));
+      }
+    }
+    String last = names[names.length - 1];
+    Invoker setter = reflector.hasSetter(last) ? reflector.getSetInvoker(last) : null;
+    return new PropertyPath(names, paths, reflectors, getters, setter);
+  }
+
+  private static boolean isBean(Class<?> type) {
+    return !type.isPrimitive() && !type.isArray() && !type.isInterface() && !Modifier.isAbstract(type.getModifiers())
+        && !Map.class.isAssignableFrom(type) && !Collection.class.isAssignableFrom(type)
+        && !ObjectWrapper.class.isAssignableFrom(type);
+  }
+
+  /**
+   * Reads the property of the original object of the meta object, which must be a plain bean of the root class.
+   */
+  public Object getValue(MetaObject metaObject) {
+    Object object = metaObject.getOriginalObject();
+    int last = names.length - 1;
+    for (int i = 0; i < last; i++) {
+      object = get(i, getters[i], object);
+      if (object == null) {
+        return null;
+      } else if (object.getClass() != reflectors[i + 1].getType()) {
+        return forObject(metaObject, object).resolveValue(paths[i + 1]);
+      }
+    }
+    Invoker getter = getters[last];
+    if (getter == null) {
+      getter = reflectors[last].getGetInvoker(names[last]);
+    }
+    return get(last, getter, object);
+  }
+
+  /**
+   * Writes the property of the original object of the meta object, which must be a plain bean of the root class.
+   */
+  public void setValue(MetaObject metaObject, Object value) {
+    Object object = metaObject.getOriginalObject();
+    int last = names.length - 1;
+    for (int i = 0; i < last; i++) {
+      Object child = get(i, getters[i], object);
+      if (child == null) {
+        forObject(metaObject, object).assignValue(paths[i], value);
+        return;
+      } else if (child.getClass() != reflectors[i + 1].getType()) {
+        forObject(metaObject, child).assignValue(paths[i + 1], value);
+        return;
+      }
+      object = child;
+    }
+    if (setter == null) {
+      forObject(metaObject, object).assignValue(names[last], value);
+      return;
+    }
+    // exceptions are raised exactly like BeanWrapper#setBeanProperty does
+    try {
+      try {
+        setter.invoke(object, new Object[] {value});
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not set property '" + names[last] + "' of '" + object.getClass() + "' with value '" + value + "' Cause: " + t.toString(), t);
+    }
+  }
+
+  private Object get(int index, Invoker getter, Object object) {
+    // exceptions are raised exactly like BeanWrapper#getBeanProperty does
+    try {
+      try {
+        return getter.invoke(object, NO_ARGUMENTS);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not get property '" + names[index] + "' from " + object.getClass() + ".  Cause: " + t.toString(), t);
+    }
+  }
+
+  private MetaObject forObject(MetaObject metaObject, Object object) {
+    if (object == metaObject.getOriginalObject()) {
+      return metaObject;
+    }
+    return MetaObject.forObject(object, metaObject.getObjectFactory(), metaObject.getObjectWrapperFactory(), metaObject.getReflectorFactory());
+  }
+}
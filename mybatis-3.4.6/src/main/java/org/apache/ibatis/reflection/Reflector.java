@@ -31,9 +31,12 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
 import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.MethodHandleInvoker;
 import org.apache.ibatis.reflection.invoker.MethodInvoker;
 import org.apache.ibatis.reflection.invoker.SetFieldInvoker;
 import org.apache.ibatis.reflection.property.PropertyNamer;
@@ -46,6 +49,8 @@ import org.apache.ibatis.reflection.property.PropertyNamer;
  */
 public class Reflector {
 
+  private static final int MAX_PROPERTY_PATHS = 256;
+
   private final Class<?> type;
   private final String[] readablePropertyNames;
   private final String[] writeablePropertyNames;
@@ -56,6 +61,7 @@ public class Reflector {
   private Constructor<?> defaultConstructor;
 
   private Map<String, String> caseInsensitivePropertyMap = new HashMap<String, String>();
+  private final ConcurrentMap<String, PropertyPath> propertyPaths = new ConcurrentHashMap<String, PropertyPath>();
 
   public Reflector(Class<?> clazz) {
     type = clazz;
@@ -145,7 +151,7 @@ public class Reflector {
 
   private void addGetMethod(String name, Method method) {
     if (isValidPropertyName(name)) {
-      getMethods.put(name, new MethodInvoker(method));
+      getMethods.put(name, newMethodInvoker(method));
       Type returnType = TypeParameterResolver.resolveReturnType(method, type);
       getTypes.put(name, typeToClass(returnType));
     }
@@ -224,7 +230,7 @@ public class Reflector {
 
   private void addSetMethod(String name, Method method) {
     if (isValidPropertyName(name)) {
-      setMethods.put(name, new MethodInvoker(method));
+      setMethods.put(name, newMethodInvoker(method));
       Type[] paramTypes = TypeParameterResolver.resolveParamTypes(method, type);
       setTypes.put(name, typeToClass(paramTypes[0]));
     }
@@ -283,7 +289,7 @@ public class Reflector {
 
   private void addSetField(Field field) {
     if (isValidPropertyName(field.getName())) {
-      setMethods.put(field.getName(), new SetFieldInvoker(field));
+      setMethods.put(field.getName(), newSetFieldInvoker(field));
       Type fieldType = TypeParameterResolver.resolveFieldType(field, type);
       setTypes.put(field.getName(), typeToClass(fieldType));
     }
@@ -291,12 +297,46 @@ public class Reflector {
 
   private void addGetField(Field field) {
     if (isValidPropertyName(field.getName())) {
-      getMethods.put(field.getName(), new GetFieldInvoker(field));
+      getMethods.put(field.getName(), newGetFieldInvoker(field));
       Type fieldType = TypeParameterResolver.resolveFieldType(field, type);
       getTypes.put(field.getName(), typeToClass(fieldType));
     }
   }
 
+  /*
+   * Method handles are bound once per property, so the mapping loops do not pay
+   * for reflective dispatch. Falls back to reflection where no handle can be obtained.
+   */
+  private Invoker newMethodInvoker(Method method) {
+    if (Jdk.methodHandleExists) {
+      Invoker invoker = MethodHandleInvoker.forMethod(method);
+      if (invoker != null) {
+        return invoker;
+      }
+    }
+    return new MethodInvoker(method);
+  }
+
+  private Invoker newGetFieldInvoker(Field field) {
+    if (Jdk.methodHandleExists) {
+      Invoker invoker = MethodHandleInvoker.forGetField(field);
+      if (invoker != null) {
+        return invoker;
+      }
+    }
+    return new GetFieldInvoker(field);
+  }
+
+  private Invoker newSetFieldInvoker(Field field) {
+    if (Jdk.methodHandleExists) {
+      Invoker invoker = MethodHandleInvoker.forSetField(field);
+      if (invoker != null) {
+        return invoker;
+      }
+    }
+    return new SetFieldInvoker(field);
+  }
+
   private boolean isValidPropertyName(String name) {
     return !(name.startsWith("$") || "serialVersionUID".equals(name) || "class".equals(name));
   }
@@ -421,6 +461,28 @@ public class Reflector {
     return method;
   }
 
+  /*
+   * Gets the compiled form of a property path of this class
+   *
+   * @param name - the property path, e.g. author.address.city
+   * @param reflectorFactory - the factory of the reflectors of nested properties
+   * @return The compiled path, or null if the path must be resolved through MetaObject
+   */
+  public PropertyPath getPropertyPath(String name, ReflectorFactory reflectorFactory) {
+    PropertyPath path = propertyPaths.get(name);
+    if (path == null) {
+      if (propertyPaths.size() >= MAX_PROPERTY_PATHS) {
+        return null;
+      }
+      path = PropertyPath.compile(this, reflectorFactory, name);
+      PropertyPath existing = propertyPaths.putIfAbsent(name, path);
+      if (existing != null) {
+        path = existing;
+      }
+    }
+    return path == PropertyPath.NONE ? null : path;
+  }
+
   /*
    * Gets the type for a property setter
    *
@@ -0,0 +1,195 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.lang.UsesJava7;
+
+/**
+ * Invokes a getter, a setter or a field through a {@link MethodHandle} that is bound once per property,
+ * avoiding the reflective dispatch of {@link Method#invoke(Object, Object...)} and {@link Field#get(Object)}.
+ * <p>
+ * Arguments are checked up front so that a mismatch fails with the same {@link IllegalArgumentException}
+ * as the reflective invokers, and exceptions thrown by a getter or setter are wrapped in an
+ * {@link InvocationTargetException}.
+ */
+@UsesJava7
+public final class MethodHandleInvoker implements Invoker {
+
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE = MethodType.methodType(Object.class, Object.class, Object.class);
+  private static final Map<Class<?>, Class<?>> WRAPPERS = new HashMap<Class<?>, Class<?>>();
+  private static final Map<Class<?>, List<Class<?>>> WIDENINGS = new HashMap<Class<?>, List<Class<?>>>();
+
+  static {
+    WRAPPERS.put(boolean.class, Boolean.class);
+    WRAPPERS.put(byte.class, Byte.class);
+    WRAPPERS.put(char.class, Character.class);
+    WRAPPERS.put(short.class, Short.class);
+    WRAPPERS.put(int.class, Integer.class);
+    WRAPPERS.put(long.class, Long.class);
+    WRAPPERS.put(float.class, Float.class);
+    WRAPPERS.put(double.class, Double.class);
+    WIDENINGS.put(Byte.class, Arrays.<Class<?>>asList(short.class, int.class, long.class, float.class, double.class));
+    WIDENINGS.put(Short.class, Arrays.<Class<?>>asList(int.class, long.class, float.class, double.class));
+    WIDENINGS.put(Character.class, Arrays.<Class<?>>asList(int.class, long.class, float.class, double.class));
+    WIDENINGS.put(Integer.class, Arrays.<Class<?>>asList(long.class, float.class, double.class));
+    WIDENINGS.put(Long.class, Arrays.<Class<?>>asList(float.class, double.class));
+    WIDENINGS.put(Float.class, Arrays.<Class<?>>asList(double.class));
+  }
+
+  private final Member member;
+  private final Class<?> type;
+  private final MethodHandle handle;
+  private final Class<?> targetType;
+  private final Class<?> parameterType;
+  private final boolean primitiveParameter;
+
+  private MethodHandleInvoker(Member member, Class<?> type, MethodHandle handle, boolean setter) {
+    this.member = member;
+    this.type = type;
+    this.handle = handle;
+    this.targetType = Modifier.isStatic(member.getModifiers()) ? null : member.getDeclaringClass();
+    this.parameterType = setter ? wrap(type) : null;
+    this.primitiveParameter = setter && type.isPrimitive();
+  }
+
+  /**
+   * Returns an invoker of the getter or setter, or null if no method handle can be obtained for it.
+   */
+  public static MethodHandleInvoker forMethod(Method method) {
+    Class<?>[] parameterTypes = method.getParameterTypes();
+    if (parameterTypes.length > 1) {
+      return null;
+    }
+    boolean setter = parameterTypes.length == 1;
+    try {
+      MethodHandle handle = MethodHandles.lookup().unreflect(method);
+      Class<?> type = setter ? parameterTypes[0] : method.getReturnType();
+      return new MethodHandleInvoker(method, type, adapt(method, handle, setter), setter);
+    } catch (IllegalAccessException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns an invoker that reads the field, or null if no method handle can be obtained for it.
+   */
+  public static MethodHandleInvoker forGetField(Field field) {
+    try {
+      MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
+      return new MethodHandleInvoker(field, field.getType(), adapt(field, handle, false), false);
+    } catch (IllegalAccessException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns an invoker that writes the field, or null if no method handle can be obtained for it
+   * (e.g. a final field).
+   */
+  public static MethodHandleInvoker forSetField(Field field) {
+    try {
+      MethodHandle handle = MethodHandles.lookup().unreflectSetter(field);
+      return new MethodHandleInvoker(field, field.getType(), adapt(field, handle, true), true);
+    } catch (IllegalAccessException e) {
+      return null;
+    }
+  }
+
+  private static MethodHandle adapt(Member member, MethodHandle handle, boolean setter) {
+    if (Modifier.isStatic(member.getModifiers())) {
+      handle = MethodHandles.dropArguments(handle, 0, Object.class);
+    }
+    return handle.asType(setter ? SETTER_TYPE : GETTER_TYPE);
+  }
+
+  /**
+   * Returns true if the boxed value can be passed to the primitive parameter by a widening conversion,
+   * just as {@link Method#invoke(Object, Object...)} allows.
+   */
+  private boolean isWidening(Class<?> valueType) {
+    if (!primitiveParameter) {
+      return false;
+    }
+    List<Class<?>> wideningTypes = WIDENINGS.get(valueType);
+    return wideningTypes != null && wideningTypes.contains(type);
+  }
+
+  private static Class<?> wrap(Class<?> type) {
+    Class<?> wrapper = WRAPPERS.get(type);
+    return wrapper == null ? type : wrapper;
+  }
+
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    checkArguments(target, args);
+    try {
+      if (parameterType == null) {
+        return (Object) handle.invokeExact(target);
+      }
+      return (Object) handle.invokeExact(target, args[0]);
+    } catch (Throwable t) {
+      if (member instanceof Field && t instanceof RuntimeException) {
+        throw (RuntimeException) t;
+      }
+      throw new InvocationTargetException(t);
+    }
+  }
+
+  private void checkArguments(Object target, Object[] args) {
+    if (targetType != null && !targetType.isInstance(target)) {
+      if (target == null) {
+        throw new NullPointerException();
+      }
+      throw new IllegalArgumentException("object is not an instance of declaring class");
+    }
+    int parameterCount = parameterType == null ? 0 : 1;
+    if ((args == null ? 0 : args.length) != parameterCount) {
+      throw new IllegalArgumentException("wrong number of arguments");
+    }
+    if (parameterType != null) {
+      Object value = args[0];
+      if (value == null ? primitiveParameter : !parameterType.isInstance(value) && !isWidening(value.getClass())) {
+        throw new IllegalArgumentException("argument type mismatch");
+      }
+    }
+  }
+
+  @Override
+  public Class<?> getType() {
+    return type;
+  }
+
+  /**
+   * Returns the getter, setter or field this invoker was bound to.
+   */
+  public Member getMember() {
+    return member;
+  }
+}
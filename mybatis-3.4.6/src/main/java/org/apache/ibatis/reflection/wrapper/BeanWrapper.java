@@ -35,9 +35,16 @@ public class BeanWrapper extends BaseWrapper {
   private final MetaClass metaClass;
 
   public BeanWrapper(MetaObject metaObject, Object object) {
+    this(metaObject, object, MetaClass.forClass(object.getClass(), metaObject.getReflectorFactory()));
+  }
+
+  /**
+   * Creates a wrapper of the object with the meta class of its class, already resolved by the caller.
+   */
+  public BeanWrapper(MetaObject metaObject, Object object, MetaClass metaClass) {
     super(metaObject);
     this.object = object;
-    this.metaClass = MetaClass.forClass(object.getClass(), metaObject.getReflectorFactory());
+    this.metaClass = metaClass;
   }
 
   @Override
@@ -39,15 +39,27 @@ public final class OgnlCache {
   }
 
   public static Object getValue(String expression, Object root) {
+    try {
+      return getValue(expression, parseExpression(expression), root);
+    } catch (OgnlException e) {
+      throw new BuilderException("Error evaluating expression '" + expression + "'. Cause: " + e, e);
+    }
+  }
+
+  /**
+   * Evaluates an expression tree previously obtained from {@link #parseExpression(String)},
+   * skipping the cache lookup. Used by nodes that resolve their expressions at build time.
+   */
+  static Object getValue(String expression, Object node, Object root) {
     try {
       Map<Object, OgnlClassResolver> context = Ognl.createDefaultContext(root, new OgnlClassResolver());
-      return Ognl.getValue(parseExpression(expression), context, root);
+      return Ognl.getValue(node, context, root);
     } catch (OgnlException e) {
       throw new BuilderException("Error evaluating expression '" + expression + "'. Cause: " + e, e);
     }
   }
 
-  private static Object parseExpression(String expression) throws OgnlException {
+  static Object parseExpression(String expression) throws OgnlException {
     Object node = expressionCache.get(expression);
     if (node == null) {
       node = Ognl.parseExpression(expression);
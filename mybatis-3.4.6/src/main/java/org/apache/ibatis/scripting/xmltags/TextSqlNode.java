@@ -15,19 +15,33 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
+import ognl.OgnlException;
+
 import org.apache.ibatis.parsing.GenericTokenParser;
 import org.apache.ibatis.parsing.TokenHandler;
 import org.apache.ibatis.scripting.ScriptingException;
 import org.apache.ibatis.type.SimpleTypeRegistry;
 
 /**
+ * The text is split into literal and <code>${}</code> expression segments once, when the node is built,
+ * so applying it only evaluates the expressions and concatenates the result.
+ *
  * @author Clinton Begin
  */
 public class TextSqlNode implements SqlNode {
+  private static final int INJECTION_CHECK_CACHE_SIZE = 256;
+
   private final String text;
   private final Pattern injectionFilter;
+  private final List<Segment> segments;
+  private final boolean dynamic;
+  private final Map<String, Boolean> injectionCheckCache;
 
   public TextSqlNode(String text) {
     this(text, null);
@@ -36,74 +50,150 @@ public class TextSqlNode implements SqlNode {
   public TextSqlNode(String text, Pattern injectionFilter) {
     this.text = text;
     this.injectionFilter = injectionFilter;
+    this.segments = parseSegments(text);
+    this.dynamic = segments.size() > 1 || (segments.size() == 1 && segments.get(0) instanceof ExpressionSegment);
+    this.injectionCheckCache = injectionFilter == null ? null : new ConcurrentHashMap<String, Boolean>();
   }
   
   public boolean isDynamic() {
-    DynamicCheckerTokenParser checker = new DynamicCheckerTokenParser();
-    GenericTokenParser parser = createParser(checker);
-    parser.parse(text);
-    return checker.isDynamic();
+    return dynamic;
   }
 
   @Override
   public boolean apply(DynamicContext context) {
-    GenericTokenParser parser = createParser(new BindingTokenParser(context, injectionFilter));
-    context.appendSql(parser.parse(text));
+    if (!dynamic) {
+      context.appendSql(segments.isEmpty() ? "" : ((LiteralSegment) segments.get(0)).text);
+      return true;
+    }
+    bindValue(context);
+    StringBuilder sql = new StringBuilder(text.length());
+    for (Segment segment : segments) {
+      segment.appendTo(sql, this, context);
+    }
+    context.appendSql(sql.toString());
     return true;
   }
-  
-  private GenericTokenParser createParser(TokenHandler handler) {
-    return new GenericTokenParser("${", "}", handler);
+
+  private void bindValue(DynamicContext context) {
+    Object parameter = context.getBindings().get("_parameter");
+    if (parameter == null) {
+      context.getBindings().put("value", null);
+    } else if (SimpleTypeRegistry.isSimpleType(parameter.getClass())) {
+      context.getBindings().put("value", parameter);
+    }
   }
 
-  private static class BindingTokenParser implements TokenHandler {
+  private void checkInjection(String value) {
+    if (injectionFilter == null) {
+      return;
+    }
+    Boolean valid = injectionCheckCache.get(value);
+    if (valid == null) {
+      valid = injectionFilter.matcher(value).matches();
+      if (injectionCheckCache.size() < INJECTION_CHECK_CACHE_SIZE) {
+        injectionCheckCache.put(value, valid);
+      }
+    }
+    if (!valid) {
+      throw new ScriptingException("Invalid input. Please conform to regex" + injectionFilter.pattern());
+    }
+  }
 
-    private DynamicContext context;
-    private Pattern injectionFilter;
+  private static List<Segment> parseSegments(String text) {
+    List<Segment> segments = new ArrayList<Segment>();
+    if (text == null || text.isEmpty()) {
+      return segments;
+    }
+    // the parser hands back the literal text with every expression replaced by a marker
+    // that can not appear in the original text, so splitting on it recovers the segments
+    String marker = String.valueOf(findMarker(text));
+    SegmentCollector collector = new SegmentCollector(marker);
+    String parsed = new GenericTokenParser("${", "}", collector).parse(text);
+    int offset = 0;
+    for (String expression : collector.expressions) {
+      int index = parsed.indexOf(marker, offset);
+      if (index > offset) {
+        segments.add(new LiteralSegment(parsed.substring(offset, index)));
+      }
+      segments.add(new ExpressionSegment(expression));
+      offset = index + marker.length();
+    }
+    if (offset < parsed.length() || segments.isEmpty()) {
+      segments.add(new LiteralSegment(parsed.substring(offset)));
+    }
+    return segments;
+  }
 
-    public BindingTokenParser(DynamicContext context, Pattern injectionFilter) {
-      this.context = context;
-      this.injectionFilter = injectionFilter;
+  private static char findMarker(String text) {
+    char marker = '\uE000';
+    while (text.indexOf(marker) != -1) {
+      marker++;
+    }
+    return marker;
+  }
+
+  private static class SegmentCollector implements TokenHandler {
+
+    private final String marker;
+    private final List<String> expressions = new ArrayList<String>();
+
+    public SegmentCollector(String marker) {
+      this.marker = marker;
     }
 
     @Override
     public String handleToken(String content) {
-      Object parameter = context.getBindings().get("_parameter");
-      if (parameter == null) {
-        context.getBindings().put("value", null);
-      } else if (SimpleTypeRegistry.isSimpleType(parameter.getClass())) {
-        context.getBindings().put("value", parameter);
-      }
-      Object value = OgnlCache.getValue(content, context.getBindings());
-      String srtValue = (value == null ? "" : String.valueOf(value)); // issue #274 return "" instead of "null"
-      checkInjection(srtValue);
-      return srtValue;
+      expressions.add(content);
+      return marker;
     }
+  }
 
-    private void checkInjection(String value) {
-      if (injectionFilter != null && !injectionFilter.matcher(value).matches()) {
-        throw new ScriptingException("Invalid input. Please conform to regex" + injectionFilter.pattern());
-      }
+  private interface Segment {
+    void appendTo(StringBuilder sql, TextSqlNode node, DynamicContext context);
+  }
+
+  private static class LiteralSegment implements Segment {
+
+    private final String text;
+
+    public LiteralSegment(String text) {
+      this.text = text;
+    }
+
+    @Override
+    public void appendTo(StringBuilder sql, TextSqlNode node, DynamicContext context) {
+      sql.append(text);
     }
   }
-  
-  private static class DynamicCheckerTokenParser implements TokenHandler {
 
-    private boolean isDynamic;
+  private static class ExpressionSegment implements Segment {
+
+    private final String expression;
+    private final Object parsedExpression;
 
-    public DynamicCheckerTokenParser() {
-      // Prevent Synthetic Access
+    public ExpressionSegment(String expression) {
+      this.expression = expression;
+      this.parsedExpression = parse(expression);
     }
 
-    public boolean isDynamic() {
-      return isDynamic;
+    private static Object parse(String expression) {
+      try {
+        return OgnlCache.parseExpression(expression);
+      } catch (OgnlException e) {
+        // report it the usual way when the expression is evaluated
+        return null;
+      }
     }
 
     @Override
-    public String handleToken(String content) {
-      this.isDynamic = true;
-      return null;
+    public void appendTo(StringBuilder sql, TextSqlNode node, DynamicContext context) {
+      Object value = parsedExpression == null
+          ? OgnlCache.getValue(expression, context.getBindings())
+          : OgnlCache.getValue(expression, parsedExpression, context.getBindings());
+      String srtValue = (value == null ? "" : String.valueOf(value)); // issue #274 return "" instead of "null"
+      node.checkInjection(srtValue);
+      sql.append(srtValue);
     }
   }
-  
-}
\ No newline at end of file
+
+}
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.session;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -51,6 +52,8 @@ import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.resultset.AutoMappingPlanCache;
+import org.apache.ibatis.executor.resultset.RowMapperCompiler;
 import org.apache.ibatis.executor.statement.RoutingStatementHandler;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.io.VFS;
@@ -102,6 +105,7 @@ public class Configuration {
   protected boolean safeResultHandlerEnabled = true;
   protected boolean mapUnderscoreToCamelCase;
   protected boolean aggressiveLazyLoading;
+  protected boolean batchLazyLoading;
   protected boolean multipleResultSetsEnabled = true;
   protected boolean useGeneratedKeys;
   protected boolean useColumnLabel = true;
@@ -109,6 +113,13 @@ public class Configuration {
   protected boolean callSettersOnNulls;
   protected boolean useActualParamName = true;
   protected boolean returnInstanceForEmptyRow;
+  protected boolean shrinkWhitespacesInSql;
+  protected boolean inClauseParameterPadding;
+  protected boolean batchRewriteInserts;
+  protected boolean batchGroupStatements;
+  protected boolean compileRowMappers;
+  protected boolean warmUpReflectors;
+  protected boolean parallelMapperLoading;
 
   protected String logPrefix;
   protected Class <? extends Log> logImpl;
@@ -119,6 +130,14 @@ public class Configuration {
   protected Integer defaultStatementTimeout;
   protected Integer defaultFetchSize;
   protected ExecutorType defaultExecutorType = ExecutorType.SIMPLE;
+  protected int batchRewriteMaxRows = 100;
+  protected int batchRewriteMaxParameters = 2000;
+  protected int batchSize;
+  protected int batchMaxBytes;
+  protected List<String> batchStatementOrder = new ArrayList<String>();
+  protected java.util.concurrent.Executor asyncExecutor;
+  protected int nestedQueryParallelism = 1;
+  protected int nestedQueryBatchSize = 1000;
   protected AutoMappingBehavior autoMappingBehavior = AutoMappingBehavior.PARTIAL;
   protected AutoMappingUnknownColumnBehavior autoMappingUnknownColumnBehavior = AutoMappingUnknownColumnBehavior.NONE;
 
@@ -144,6 +163,8 @@ public class Configuration {
   protected final TypeHandlerRegistry typeHandlerRegistry = new TypeHandlerRegistry();
   protected final TypeAliasRegistry typeAliasRegistry = new TypeAliasRegistry();
   protected final LanguageDriverRegistry languageRegistry = new LanguageDriverRegistry();
+  protected final RowMapperCompiler rowMapperCompiler = new RowMapperCompiler(this);
+  protected final AutoMappingPlanCache autoMappingPlanCache = new AutoMappingPlanCache();
 
   protected final Map<String, MappedStatement> mappedStatements = new StrictMap<MappedStatement>("Mapped Statements collection");
   protected final Map<String, Cache> caches = new StrictMap<Cache>("Caches collection");
@@ -259,6 +280,169 @@ public class Configuration {
     this.returnInstanceForEmptyRow = returnEmptyInstance;
   }
 
+  public boolean isShrinkWhitespacesInSql() {
+    return shrinkWhitespacesInSql;
+  }
+
+  public void setShrinkWhitespacesInSql(boolean shrinkWhitespacesInSql) {
+    this.shrinkWhitespacesInSql = shrinkWhitespacesInSql;
+  }
+
+  public boolean isInClauseParameterPadding() {
+    return inClauseParameterPadding;
+  }
+
+  public void setInClauseParameterPadding(boolean inClauseParameterPadding) {
+    this.inClauseParameterPadding = inClauseParameterPadding;
+  }
+
+  public boolean isBatchRewriteInserts() {
+    return batchRewriteInserts;
+  }
+
+  public void setBatchRewriteInserts(boolean batchRewriteInserts) {
+    this.batchRewriteInserts = batchRewriteInserts;
+  }
+
+  public int getBatchRewriteMaxRows() {
+    return batchRewriteMaxRows;
+  }
+
+  public void setBatchRewriteMaxRows(int batchRewriteMaxRows) {
+    this.batchRewriteMaxRows = batchRewriteMaxRows;
+  }
+
+  public int getBatchRewriteMaxParameters() {
+    return batchRewriteMaxParameters;
+  }
+
+  public void setBatchRewriteMaxParameters(int batchRewriteMaxParameters) {
+    this.batchRewriteMaxParameters = batchRewriteMaxParameters;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public int getBatchMaxBytes() {
+    return batchMaxBytes;
+  }
+
+  public void setBatchMaxBytes(int batchMaxBytes) {
+    this.batchMaxBytes = batchMaxBytes;
+  }
+
+  public boolean isBatchGroupStatements() {
+    return batchGroupStatements;
+  }
+
+  /**
+   * When enabled, a BATCH executor adds an insert to the pending batch of the same insert statement, not only to
+   * the last batch, so interleaved inserts into several tables run as one JDBC batch per statement.
+   * Inserts of different statements may therefore run in another order than they were issued; use
+   * {@link #setBatchStatementOrder(List)} when one depends on another. Updates, deletes and other statements are
+   * never grouped and end the groups: inserts issued after them start new batches, so no statement is moved
+   * across an update or delete.
+   */
+  public void setBatchGroupStatements(boolean batchGroupStatements) {
+    this.batchGroupStatements = batchGroupStatements;
+  }
+
+  public List<String> getBatchStatementOrder() {
+    return batchStatementOrder;
+  }
+
+  /**
+   * Sets the order in which a BATCH executor runs its pending statements when they are flushed.
+   * Each element is a statement id or a mapper namespace; statements that are not listed run last.
+   * Within the same rank statements run in the order they were first batched.
+   */
+  public void setBatchStatementOrder(List<String> batchStatementOrder) {
+    this.batchStatementOrder = batchStatementOrder;
+  }
+
+  public java.util.concurrent.Executor getAsyncExecutor() {
+    return asyncExecutor;
+  }
+
+  /**
+   * Sets the executor for asynchronous work: mapper methods returning a <code>CompletableFuture</code> or a
+   * <code>CompletionStage</code>, nested selects run concurrently (see {@link #setNestedQueryParallelism(int)}),
+   * reflector warm-up and parallel mapper loading. Work that a caller waits for is run by the caller
+   * when no thread of the executor has started it, so a bounded executor is safe to use.
+   * When none is set a shared pool of daemon threads is used.
+   */
+  public void setAsyncExecutor(java.util.concurrent.Executor asyncExecutor) {
+    this.asyncExecutor = asyncExecutor;
+  }
+
+  public int getNestedQueryParallelism() {
+    return nestedQueryParallelism;
+  }
+
+  public void setNestedQueryParallelism(int nestedQueryParallelism) {
+    this.nestedQueryParallelism = nestedQueryParallelism;
+  }
+
+  public int getNestedQueryBatchSize() {
+    return nestedQueryBatchSize;
+  }
+
+  /**
+   * Sets the maximum number of parent keys passed to one run of a nested select that has a <code>batchKey</code>.
+   */
+  public void setNestedQueryBatchSize(int nestedQueryBatchSize) {
+    this.nestedQueryBatchSize = nestedQueryBatchSize;
+  }
+
+  public boolean isCompileRowMappers() {
+    return compileRowMappers;
+  }
+
+  /**
+   * When enabled, rows of flat result maps are mapped by a class generated per result map and column set
+   * instead of through reflection.
+   */
+  public void setCompileRowMappers(boolean compileRowMappers) {
+    this.compileRowMappers = compileRowMappers;
+  }
+
+  public boolean isWarmUpReflectors() {
+    return warmUpReflectors;
+  }
+
+  /**
+   * When enabled, the reflectors of all result and parameter types are built in parallel when the
+   * {@link SqlSessionFactory} is built instead of on first use.
+   */
+  public void setWarmUpReflectors(boolean warmUpReflectors) {
+    this.warmUpReflectors = warmUpReflectors;
+  }
+
+  public boolean isParallelMapperLoading() {
+    return parallelMapperLoading;
+  }
+
+  /**
+   * When enabled, the mapper XML files listed in the configuration file are parsed in parallel and then
+   * added to the configuration one by one in the order they are listed.
+   */
+  public void setParallelMapperLoading(boolean parallelMapperLoading) {
+    this.parallelMapperLoading = parallelMapperLoading;
+  }
+
+  public RowMapperCompiler getRowMapperCompiler() {
+    return rowMapperCompiler;
+  }
+
+  public AutoMappingPlanCache getAutoMappingPlanCache() {
+    return autoMappingPlanCache;
+  }
+
   public String getDatabaseId() {
     return databaseId;
   }
@@ -364,6 +548,19 @@ public class Configuration {
     this.aggressiveLazyLoading = aggressiveLazyLoading;
   }
 
+  public boolean isBatchLazyLoading() {
+    return batchLazyLoading;
+  }
+
+  /**
+   * When enabled, loading a lazy property of one object of a result list loads that property
+   * for all objects of the list at once. Only applies to nested selects with a <code>batchKey</code>,
+   * which load the whole list with one select; other lazy properties are still loaded one object at a time.
+   */
+  public void setBatchLazyLoading(boolean batchLazyLoading) {
+    this.batchLazyLoading = batchLazyLoading;
+  }
+
   public boolean isMultipleResultSetsEnabled() {
     return multipleResultSetsEnabled;
   }
@@ -0,0 +1,64 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.defaults;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Shared pool of daemon threads, used for asynchronous work when {@link Configuration#getAsyncExecutor()} is not set.
+ */
+public final class DefaultAsyncExecutor implements Executor {
+
+  private static final DefaultAsyncExecutor INSTANCE = new DefaultAsyncExecutor();
+
+  private DefaultAsyncExecutor() {
+    // Singleton
+  }
+
+  /**
+   * Returns the configured executor, or the shared default one.
+   */
+  public static Executor of(Configuration configuration) {
+    Executor executor = configuration.getAsyncExecutor();
+    return executor == null ? INSTANCE : executor;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    PoolHolder.POOL.execute(command);
+  }
+
+  private static class PoolHolder {
+
+    private static final ExecutorService POOL = Executors.newCachedThreadPool(new ThreadFactory() {
+      private final AtomicInteger threadNumber = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "mybatis-async-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+}
@@ -80,7 +80,7 @@ public abstract class BaseTypeHandler<T> extends TypeReference<T> implements Typ
     try {
       result = getNullableResult(rs, columnIndex);
     } catch (Exception e) {
-      throw new ResultMapException("Error attempting to get column #" + columnIndex+ " from result set.  Cause: " + e, e);
+      throw newResultMapException(columnIndex, e);
     }
     if (rs.wasNull()) {
       return null;
@@ -89,6 +89,10 @@ public abstract class BaseTypeHandler<T> extends TypeReference<T> implements Typ
     }
   }
 
+  static ResultMapException newResultMapException(int columnIndex, Exception e) {
+    return new ResultMapException("Error attempting to get column #" + columnIndex+ " from result set.  Cause: " + e, e);
+  }
+
   @Override
   public T getResult(CallableStatement cs, int columnIndex) throws SQLException {
     T result;
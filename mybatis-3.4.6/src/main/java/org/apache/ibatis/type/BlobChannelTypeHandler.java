@@ -0,0 +1,107 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The {@link TypeHandler} for {@link Blob}/{@link ReadableByteChannel} using method supported at JDBC 4.0.
+ * <p>
+ * The LOB is never materialized: results are channels over {@link Blob#getBinaryStream()}, which most drivers
+ * only allow to be read while the result set (or the transaction) that returned them is open.
+ * @since 3.4.6
+ */
+public class BlobChannelTypeHandler extends BaseTypeHandler<ReadableByteChannel> {
+
+  /**
+   * Set a {@link ReadableByteChannel} into {@link PreparedStatement}.
+   * The remaining size of a {@link FileChannel} is passed on as the length of the stream.
+   * A size of 0 is not trusted, since pipes and devices report it too, so the stream is then set without a length.
+   * @see PreparedStatement#setBlob(int, InputStream)
+   * @see PreparedStatement#setBlob(int, InputStream, long)
+   */
+  @Override
+  public void setNonNullParameter(PreparedStatement ps, int i, ReadableByteChannel parameter, JdbcType jdbcType)
+      throws SQLException {
+    InputStream in = Channels.newInputStream(parameter);
+    long length = remaining(parameter);
+    if (length > 0) {
+      ps.setBlob(i, in, length);
+    } else {
+      ps.setBlob(i, in);
+    }
+  }
+
+  /**
+   * Get a {@link ReadableByteChannel} that corresponds to a specified column name from {@link ResultSet}.
+   * @see ResultSet#getBlob(String)
+   */
+  @Override
+  public ReadableByteChannel getNullableResult(ResultSet rs, String columnName)
+      throws SQLException {
+    return toChannel(rs.getBlob(columnName));
+  }
+
+  /**
+   * Get a {@link ReadableByteChannel} that corresponds to a specified column index from {@link ResultSet}.
+   * @see ResultSet#getBlob(int)
+   */
+  @Override
+  public ReadableByteChannel getNullableResult(ResultSet rs, int columnIndex)
+      throws SQLException {
+    return toChannel(rs.getBlob(columnIndex));
+  }
+
+  /**
+   * Get a {@link ReadableByteChannel} that corresponds to a specified column index from {@link CallableStatement}.
+   * @see CallableStatement#getBlob(int)
+   */
+  @Override
+  public ReadableByteChannel getNullableResult(CallableStatement cs, int columnIndex)
+      throws SQLException {
+    return toChannel(cs.getBlob(columnIndex));
+  }
+
+  private ReadableByteChannel toChannel(Blob blob) throws SQLException {
+    if (blob == null) {
+      return null;
+    } else {
+      return Channels.newChannel(blob.getBinaryStream());
+    }
+  }
+
+  private long remaining(ReadableByteChannel channel) {
+    if (channel instanceof FileChannel) {
+      try {
+        FileChannel fileChannel = (FileChannel) channel;
+        return fileChannel.size() - fileChannel.position();
+      } catch (IOException e) {
+        // unknown length
+      }
+    }
+    return -1;
+  }
+
+}
@@ -15,7 +15,11 @@
  */
 package org.apache.ibatis.type;
 
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.sql.*;
 
 /**
@@ -27,12 +31,20 @@ public class BlobInputStreamTypeHandler extends BaseTypeHandler<InputStream> {
 
   /**
    * Set an {@link InputStream} into {@link PreparedStatement}.
+   * The remaining size of a {@link ByteArrayInputStream} or {@link FileInputStream} is passed on as the length of the stream.
+   * A size of 0 is not trusted, since pipes and devices report it too, so the stream is then set without a length.
    * @see PreparedStatement#setBlob(int, InputStream)
+   * @see PreparedStatement#setBlob(int, InputStream, long)
    */
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, InputStream parameter, JdbcType jdbcType)
       throws SQLException {
-    ps.setBlob(i, parameter);
+    long length = remaining(parameter);
+    if (length > 0) {
+      ps.setBlob(i, parameter, length);
+    } else {
+      ps.setBlob(i, parameter);
+    }
   }
 
   /**
@@ -73,4 +85,18 @@ public class BlobInputStreamTypeHandler extends BaseTypeHandler<InputStream> {
     }
   }
 
+  private long remaining(InputStream in) {
+    try {
+      if (in instanceof ByteArrayInputStream) {
+        return in.available();
+      } else if (in instanceof FileInputStream) {
+        FileChannel channel = ((FileInputStream) in).getChannel();
+        return channel.size() - channel.position();
+      }
+    } catch (IOException e) {
+      // unknown length
+    }
+    return -1;
+  }
+
 }
@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class BooleanTypeHandler extends BaseTypeHandler<Boolean> {
+public class BooleanTypeHandler extends BaseTypeHandler<Boolean> implements BooleanResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Boolean parameter, JdbcType jdbcType)
@@ -48,4 +48,13 @@ public class BooleanTypeHandler extends BaseTypeHandler<Boolean> {
       throws SQLException {
     return cs.getBoolean(columnIndex);
   }
+
+  @Override
+  public boolean getBoolean(ResultSet rs, int columnIndex) throws SQLException {
+    try {
+      return rs.getBoolean(columnIndex);
+    } catch (Exception e) {
+      throw newResultMapException(columnIndex, e);
+    }
+  }
 }
@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class ByteTypeHandler extends BaseTypeHandler<Byte> {
+public class ByteTypeHandler extends BaseTypeHandler<Byte> implements ByteResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Byte parameter, JdbcType jdbcType)
@@ -48,4 +48,13 @@ public class ByteTypeHandler extends BaseTypeHandler<Byte> {
       throws SQLException {
     return cs.getByte(columnIndex);
   }
+
+  @Override
+  public byte getByte(ResultSet rs, int columnIndex) throws SQLException {
+    try {
+      return rs.getByte(columnIndex);
+    } catch (Exception e) {
+      throw newResultMapException(columnIndex, e);
+    }
+  }
 }
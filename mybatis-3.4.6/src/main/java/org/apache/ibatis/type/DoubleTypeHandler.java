@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class DoubleTypeHandler extends BaseTypeHandler<Double> {
+public class DoubleTypeHandler extends BaseTypeHandler<Double> implements DoubleResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Double parameter, JdbcType jdbcType)
@@ -49,4 +49,12 @@ public class DoubleTypeHandler extends BaseTypeHandler<Double> {
     return cs.getDouble(columnIndex);
   }
 
+  @Override
+  public double getDouble(ResultSet rs, int columnIndex) throws SQLException {
+    try {
+      return rs.getDouble(columnIndex);
+    } catch (Exception e) {
+      throw newResultMapException(columnIndex, e);
+    }
+  }
 }
@@ -0,0 +1,32 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Optionally implemented by a {@link TypeHandler} of {@link Float} to read a column into a <code>float</code> property
+ * without boxing the value.
+ */
+public interface FloatResultReader {
+
+  /**
+   * Returns the value of the column, or <code>0</code> for SQL NULL. The caller checks {@link ResultSet#wasNull()}.
+   */
+  float getFloat(ResultSet rs, int columnIndex) throws SQLException;
+
+}
@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class FloatTypeHandler extends BaseTypeHandler<Float> {
+public class FloatTypeHandler extends BaseTypeHandler<Float> implements FloatResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Float parameter, JdbcType jdbcType)
@@ -48,4 +48,13 @@ public class FloatTypeHandler extends BaseTypeHandler<Float> {
       throws SQLException {
     return cs.getFloat(columnIndex);
   }
+
+  @Override
+  public float getFloat(ResultSet rs, int columnIndex) throws SQLException {
+    try {
+      return rs.getFloat(columnIndex);
+    } catch (Exception e) {
+      throw newResultMapException(columnIndex, e);
+    }
+  }
 }
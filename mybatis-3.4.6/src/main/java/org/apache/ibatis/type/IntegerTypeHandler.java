@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class IntegerTypeHandler extends BaseTypeHandler<Integer> {
+public class IntegerTypeHandler extends BaseTypeHandler<Integer> implements IntResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Integer parameter, JdbcType jdbcType)
@@ -48,4 +48,13 @@ public class IntegerTypeHandler extends BaseTypeHandler<Integer> {
       throws SQLException {
     return cs.getInt(columnIndex);
   }
+
+  @Override
+  public int getInt(ResultSet rs, int columnIndex) throws SQLException {
+    try {
+      return rs.getInt(columnIndex);
+    } catch (Exception e) {
+      throw newResultMapException(columnIndex, e);
+    }
+  }
 }
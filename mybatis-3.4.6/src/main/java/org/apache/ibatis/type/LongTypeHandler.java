@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class LongTypeHandler extends BaseTypeHandler<Long> {
+public class LongTypeHandler extends BaseTypeHandler<Long> implements LongResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Long parameter, JdbcType jdbcType)
@@ -48,4 +48,13 @@ public class LongTypeHandler extends BaseTypeHandler<Long> {
       throws SQLException {
     return cs.getLong(columnIndex);
   }
+
+  @Override
+  public long getLong(ResultSet rs, int columnIndex) throws SQLException {
+    try {
+      return rs.getLong(columnIndex);
+    } catch (Exception e) {
+      throw newResultMapException(columnIndex, e);
+    }
+  }
 }
@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class ShortTypeHandler extends BaseTypeHandler<Short> {
+public class ShortTypeHandler extends BaseTypeHandler<Short> implements ShortResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Short parameter, JdbcType jdbcType)
@@ -48,4 +48,13 @@ public class ShortTypeHandler extends BaseTypeHandler<Short> {
       throws SQLException {
     return cs.getShort(columnIndex);
   }
+
+  @Override
+  public short getShort(ResultSet rs, int columnIndex) throws SQLException {
+    try {
+      return rs.getShort(columnIndex);
+    } catch (Exception e) {
+      throw newResultMapException(columnIndex, e);
+    }
+  }
 }
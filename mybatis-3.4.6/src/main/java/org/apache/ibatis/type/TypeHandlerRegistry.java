@@ -22,6 +22,8 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -31,6 +33,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.io.ResolverUtil;
@@ -49,6 +52,13 @@ public final class TypeHandlerRegistry {
   private final Map<Class<?>, TypeHandler<?>> ALL_TYPE_HANDLERS_MAP = new HashMap<Class<?>, TypeHandler<?>>();
 
   private static final Map<JdbcType, TypeHandler<?>> NULL_TYPE_HANDLER_MAP = Collections.emptyMap();
+  private static final int JDBC_TYPE_COUNT = JdbcType.values().length;
+
+  /**
+   * Resolved handlers per java type, indexed by {@link #indexOf(JdbcType)}.
+   * Replaced by an empty map whenever a handler is registered.
+   */
+  private volatile ConcurrentMap<Type, TypeHandler<?>[]> resolvedTypeHandlers = new ConcurrentHashMap<Type, TypeHandler<?>[]>();
 
   private Class<? extends TypeHandler> defaultEnumTypeHandler = EnumTypeHandler.class;
 
@@ -110,6 +120,7 @@ public final class TypeHandlerRegistry {
     register(JdbcType.NUMERIC, new BigDecimalTypeHandler());
 
     register(InputStream.class, new BlobInputStreamTypeHandler());
+    register(ReadableByteChannel.class, new BlobChannelTypeHandler());
     register(Byte[].class, new ByteObjectArrayTypeHandler());
     register(Byte[].class, JdbcType.BLOB, new BlobByteObjectArrayTypeHandler());
     register(Byte[].class, JdbcType.LONGVARBINARY, new BlobByteObjectArrayTypeHandler());
@@ -199,20 +210,41 @@ public final class TypeHandlerRegistry {
     if (ParamMap.class.equals(type)) {
       return null;
     }
+    ConcurrentMap<Type, TypeHandler<?>[]> resolved = resolvedTypeHandlers;
+    TypeHandler<?>[] handlers = resolved.get(type);
+    if (handlers == null) {
+      handlers = resolveTypeHandlers(type);
+      resolved.put(type, handlers);
+    }
+    // type drives generics here
+    return (TypeHandler<T>) handlers[indexOf(jdbcType)];
+  }
+
+  /**
+   * Resolves the handler of the java type for every JDBC type at once: the handler registered for the JDBC type,
+   * else the one registered for no JDBC type, else the sole registered handler.
+   */
+  private TypeHandler<?>[] resolveTypeHandlers(Type type) {
+    TypeHandler<?>[] handlers = new TypeHandler<?>[JDBC_TYPE_COUNT + 1];
     Map<JdbcType, TypeHandler<?>> jdbcHandlerMap = getJdbcHandlerMap(type);
-    TypeHandler<?> handler = null;
     if (jdbcHandlerMap != null) {
-      handler = jdbcHandlerMap.get(jdbcType);
-      if (handler == null) {
-        handler = jdbcHandlerMap.get(null);
-      }
-      if (handler == null) {
+      TypeHandler<?> defaultHandler = jdbcHandlerMap.get(null);
+      if (defaultHandler == null) {
         // #591
-        handler = pickSoleHandler(jdbcHandlerMap);
+        defaultHandler = pickSoleHandler(jdbcHandlerMap);
+      }
+      Arrays.fill(handlers, defaultHandler);
+      for (Entry<JdbcType, TypeHandler<?>> entry : jdbcHandlerMap.entrySet()) {
+        if (entry.getKey() != null) {
+          handlers[indexOf(entry.getKey())] = entry.getValue();
+        }
       }
     }
-    // type drives generics here
-    return (TypeHandler<T>) handler;
+    return handlers;
+  }
+
+  private static int indexOf(JdbcType jdbcType) {
+    return jdbcType == null ? 0 : jdbcType.ordinal() + 1;
   }
 
   private Map<JdbcType, TypeHandler<?>> getJdbcHandlerMap(Type type) {
@@ -358,6 +390,7 @@ public final class TypeHandlerRegistry {
         TYPE_HANDLER_MAP.put(javaType, map);
       }
       map.put(jdbcType, handler);
+      resolvedTypeHandlers = new ConcurrentHashMap<Type, TypeHandler<?>[]>();
     }
     ALL_TYPE_HANDLERS_MAP.put(handler.getClass(), handler);
   }
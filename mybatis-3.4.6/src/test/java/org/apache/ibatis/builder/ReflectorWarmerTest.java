@@ -0,0 +1,94 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.domain.blog.Comment;
+import org.apache.ibatis.domain.blog.Post;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Test;
+
+public class ReflectorWarmerTest {
+
+  @Test
+  public void shouldReflectResultAndParameterTypes() throws Exception {
+    InputStream inputStream = Resources.getResourceAsStream("org/apache/ibatis/builder/MapperConfig.xml");
+    Configuration configuration = new XMLConfigBuilder(inputStream).parse();
+    RecordingReflectorFactory reflectorFactory = new RecordingReflectorFactory();
+    configuration.setReflectorFactory(reflectorFactory);
+
+    ReflectorWarmer.warmUp(configuration, 4);
+
+    assertThat(reflectorFactory.types).contains(Author.class, Blog.class, Comment.class, Post.class);
+    assertThat(reflectorFactory.types).doesNotContain(String.class, Integer.class, List.class);
+    assertThat(reflectorFactory.types).doesNotHaveDuplicates();
+  }
+
+  @Test(timeout = 10000)
+  public void shouldReflectOnCallingThreadWhenPoolIsBusy() throws Exception {
+    InputStream inputStream = Resources.getResourceAsStream("org/apache/ibatis/builder/MapperConfig.xml");
+    Configuration configuration = new XMLConfigBuilder(inputStream).parse();
+    RecordingReflectorFactory reflectorFactory = new RecordingReflectorFactory();
+    configuration.setReflectorFactory(reflectorFactory);
+    // a saturated pool, nothing it is given ever starts
+    configuration.setAsyncExecutor(new Executor() {
+      @Override
+      public void execute(Runnable command) {
+      }
+    });
+
+    ReflectorWarmer.warmUp(configuration, 4);
+
+    assertThat(reflectorFactory.types).contains(Author.class, Blog.class, Comment.class, Post.class);
+  }
+
+  @Test
+  public void shouldNotReflectWhenClassCacheIsDisabled() throws Exception {
+    InputStream inputStream = Resources.getResourceAsStream("org/apache/ibatis/builder/MapperConfig.xml");
+    Configuration configuration = new XMLConfigBuilder(inputStream).parse();
+    RecordingReflectorFactory reflectorFactory = new RecordingReflectorFactory();
+    reflectorFactory.setClassCacheEnabled(false);
+    configuration.setReflectorFactory(reflectorFactory);
+
+    ReflectorWarmer.warmUp(configuration);
+
+    assertThat(reflectorFactory.types).isEmpty();
+  }
+
+  private static class RecordingReflectorFactory extends DefaultReflectorFactory {
+    private final List<Class<?>> types = Collections.synchronizedList(new ArrayList<Class<?>>());
+
+    @Override
+    public Reflector findForClass(Class<?> type) {
+      types.add(type);
+      return super.findForClass(type);
+    }
+  }
+
+}
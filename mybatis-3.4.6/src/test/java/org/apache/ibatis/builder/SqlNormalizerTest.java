@@ -0,0 +1,122 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SqlNormalizerTest {
+
+  private final Configuration configuration = new Configuration();
+
+  @Test
+  public void shouldShrinkWhitespacesOutsideLiterals() {
+    String sql = "\n  SELECT *\n\tFROM  BLOG\n  WHERE NAME = '  a   b '  AND \"MY  COL\" = 1 /* keep   this */  \n";
+    Assert.assertEquals("SELECT * FROM BLOG WHERE NAME = '  a   b ' AND \"MY  COL\" = 1 /* keep   this */",
+        SqlNormalizer.shrinkWhitespaces(sql));
+  }
+
+  @Test
+  public void shouldKeepLineBreakAfterLineComment() {
+    Assert.assertEquals("SELECT * -- all columns\nFROM BLOG",
+        SqlNormalizer.shrinkWhitespaces("SELECT *   -- all columns\n    FROM BLOG"));
+  }
+
+  @Test
+  public void shouldHandleEscapedQuotes() {
+    Assert.assertEquals("SELECT 'it''s   ok' FROM BLOG",
+        SqlNormalizer.shrinkWhitespaces("SELECT   'it''s   ok'   FROM BLOG"));
+  }
+
+  @Test
+  public void shouldComputePaddedSizes() {
+    Assert.assertEquals(0, SqlNormalizer.paddedSize(0));
+    Assert.assertEquals(1, SqlNormalizer.paddedSize(1));
+    Assert.assertEquals(2, SqlNormalizer.paddedSize(2));
+    Assert.assertEquals(4, SqlNormalizer.paddedSize(3));
+    Assert.assertEquals(8, SqlNormalizer.paddedSize(5));
+    Assert.assertEquals(8, SqlNormalizer.paddedSize(8));
+    Assert.assertEquals(512, SqlNormalizer.paddedSize(300));
+    Assert.assertEquals(600, SqlNormalizer.paddedSize(600));
+  }
+
+  @Test
+  public void shouldPadInListsByRepeatingTheLastParameter() {
+    List<ParameterMapping> mappings = mappings("name", "a", "b", "c", "limit");
+    String sql = SqlNormalizer.padInClauseParameters(
+        "SELECT * FROM BLOG WHERE NAME = ? AND ID in ( ?, ?,? ) LIMIT ?", mappings);
+    Assert.assertEquals("SELECT * FROM BLOG WHERE NAME = ? AND ID in ( ?, ?,?, ? ) LIMIT ?", sql);
+    Assert.assertEquals(6, mappings.size());
+    Assert.assertEquals("name", mappings.get(0).getProperty());
+    Assert.assertEquals("c", mappings.get(3).getProperty());
+    Assert.assertEquals("c", mappings.get(4).getProperty());
+    Assert.assertEquals("limit", mappings.get(5).getProperty());
+  }
+
+  @Test
+  public void shouldNotPadListsThatAreNotPlainPlaceholders() {
+    List<ParameterMapping> mappings = mappings("a", "b", "c");
+    String sql = "SELECT * FROM BLOG WHERE ID IN (?, ?, ? + 1) AND INDEX_ID = ?";
+    Assert.assertSame(sql, SqlNormalizer.padInClauseParameters(sql, mappings("a", "b", "c", "d")));
+    sql = "SELECT * FROM BLOG WHERE ID IN (SELECT ID FROM POST WHERE X IN ('?')) AND A = ?";
+    Assert.assertSame(sql, SqlNormalizer.padInClauseParameters(sql, mappings("a")));
+    sql = "SELECT * FROM BLOG WHERE LOGIN(?, ?, ?)";
+    Assert.assertSame(sql, SqlNormalizer.padInClauseParameters(sql, mappings));
+    Assert.assertEquals(3, mappings.size());
+  }
+
+  @Test
+  public void shouldNotPadWhenPlaceholdersDoNotMatchMappings() {
+    List<ParameterMapping> mappings = mappings("a", "b", "c");
+    String sql = "SELECT * FROM BLOG WHERE ID IN (?, ?, ?) AND DATA ? 'key'";
+    Assert.assertSame(sql, SqlNormalizer.padInClauseParameters(sql, mappings));
+    Assert.assertEquals(3, mappings.size());
+  }
+
+  @Test
+  public void shouldNormalizeWhenEnabledInConfiguration() {
+    Configuration configuration = new Configuration();
+    configuration.setShrinkWhitespacesInSql(true);
+    configuration.setInClauseParameterPadding(true);
+    Map<String, Object> parameter = new HashMap<String, Object>();
+    parameter.put("a", 1);
+    parameter.put("b", 2);
+    parameter.put("c", 3);
+    BoundSql boundSql = new SqlSourceBuilder(configuration)
+        .parse("SELECT *\n  FROM BLOG\n  WHERE ID IN (#{a}, #{b}, #{c})", Map.class, new HashMap<String, Object>())
+        .getBoundSql(parameter);
+    Assert.assertEquals("SELECT * FROM BLOG WHERE ID IN (?, ?, ?, ?)", boundSql.getSql());
+    Assert.assertEquals(4, boundSql.getParameterMappings().size());
+    Assert.assertEquals("c", boundSql.getParameterMappings().get(3).getProperty());
+  }
+
+  private List<ParameterMapping> mappings(String... properties) {
+    List<ParameterMapping> mappings = new ArrayList<ParameterMapping>();
+    for (String property : properties) {
+      mappings.add(new ParameterMapping.Builder(configuration, property, Object.class).build());
+    }
+    return mappings;
+  }
+
+}
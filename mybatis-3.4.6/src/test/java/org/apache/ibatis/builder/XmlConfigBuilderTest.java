@@ -82,6 +82,10 @@ public class XmlConfigBuilderTest {
     assertThat(config.getProxyFactory()).isInstanceOf(JavassistProxyFactory.class);
     assertThat(config.isLazyLoadingEnabled()).isFalse();
     assertThat(config.isAggressiveLazyLoading()).isFalse();
+    assertThat(config.isBatchLazyLoading()).isFalse();
+    assertThat(config.isCompileRowMappers()).isFalse();
+    assertThat(config.isWarmUpReflectors()).isFalse();
+    assertThat(config.isParallelMapperLoading()).isFalse();
     assertThat(config.isMultipleResultSetsEnabled()).isTrue();
     assertThat(config.isUseColumnLabel()).isTrue();
     assertThat(config.isUseGeneratedKeys()).isFalse();
@@ -99,6 +103,18 @@ public class XmlConfigBuilderTest {
     assertNull(config.getLogPrefix());
     assertNull(config.getLogImpl());
     assertNull(config.getConfigurationFactory());
+    assertThat(config.isShrinkWhitespacesInSql()).isFalse();
+    assertThat(config.isInClauseParameterPadding()).isFalse();
+    assertThat(config.isBatchRewriteInserts()).isFalse();
+    assertThat(config.getBatchRewriteMaxRows()).isEqualTo(100);
+    assertThat(config.getBatchRewriteMaxParameters()).isEqualTo(2000);
+    assertThat(config.getBatchSize()).isEqualTo(0);
+    assertThat(config.getBatchMaxBytes()).isEqualTo(0);
+    assertThat(config.isBatchGroupStatements()).isFalse();
+    assertThat(config.getBatchStatementOrder()).isEmpty();
+    assertNull(config.getAsyncExecutor());
+    assertThat(config.getNestedQueryParallelism()).isEqualTo(1);
+    assertThat(config.getNestedQueryBatchSize()).isEqualTo(1000);
     assertThat(config.getTypeHandlerRegistry().getTypeHandler(RoundingMode.class)).isInstanceOf(EnumTypeHandler.class);
     inputStream.close();
   }
@@ -175,6 +191,10 @@ public class XmlConfigBuilderTest {
       assertThat(config.getProxyFactory()).isInstanceOf(CglibProxyFactory.class);
       assertThat(config.isLazyLoadingEnabled()).isTrue();
       assertThat(config.isAggressiveLazyLoading()).isTrue();
+      assertThat(config.isBatchLazyLoading()).isTrue();
+      assertThat(config.isCompileRowMappers()).isTrue();
+      assertThat(config.isWarmUpReflectors()).isTrue();
+      assertThat(config.isParallelMapperLoading()).isTrue();
       assertThat(config.isMultipleResultSetsEnabled()).isFalse();
       assertThat(config.isUseColumnLabel()).isFalse();
       assertThat(config.isUseGeneratedKeys()).isTrue();
@@ -193,6 +213,17 @@ public class XmlConfigBuilderTest {
       assertThat(config.getLogImpl().getName()).isEqualTo(Slf4jImpl.class.getName());
       assertThat(config.getVfsImpl().getName()).isEqualTo(JBoss6VFS.class.getName());
       assertThat(config.getConfigurationFactory().getName()).isEqualTo(String.class.getName());
+      assertThat(config.isShrinkWhitespacesInSql()).isTrue();
+      assertThat(config.isInClauseParameterPadding()).isTrue();
+      assertThat(config.isBatchRewriteInserts()).isTrue();
+      assertThat(config.getBatchRewriteMaxRows()).isEqualTo(50);
+      assertThat(config.getBatchRewriteMaxParameters()).isEqualTo(1000);
+      assertThat(config.getBatchSize()).isEqualTo(500);
+      assertThat(config.getBatchMaxBytes()).isEqualTo(1048576);
+      assertThat(config.isBatchGroupStatements()).isTrue();
+      assertThat(config.getBatchStatementOrder()).containsExactly("org.apache.ibatis.domain.blog.mappers.AuthorMapper", "org.apache.ibatis.domain.blog.mappers.BlogMapper");
+      assertThat(config.getNestedQueryParallelism()).isEqualTo(4);
+      assertThat(config.getNestedQueryBatchSize()).isEqualTo(500);
 
       assertTrue(config.getTypeAliasRegistry().getTypeAliases().get("blogauthor").equals(Author.class));
       assertTrue(config.getTypeAliasRegistry().getTypeAliases().get("blog").equals(Blog.class));
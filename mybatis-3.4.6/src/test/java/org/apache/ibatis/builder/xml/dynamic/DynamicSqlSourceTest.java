@@ -25,10 +25,12 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.scripting.ScriptingException;
 import org.apache.ibatis.scripting.xmltags.ChooseSqlNode;
 import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
 import org.apache.ibatis.scripting.xmltags.ForEachSqlNode;
@@ -378,6 +380,48 @@ public class DynamicSqlSourceTest extends BaseDataTest {
     return new MixedSqlNode(Arrays.asList(contents));
   }
 
+  @Test
+  public void shouldKeepEscapedAndUnclosedTokensAsLiterals() {
+    final MixedSqlNode sqlNode = mixedContents(new TextSqlNode("SELECT \\${id} FROM ${table} WHERE ${id"));
+    final DynamicSqlSource source = new DynamicSqlSource(new Configuration(), sqlNode);
+    final HashMap<String, String> parameterObject = new HashMap<String, String>() {{
+      put("table", "BLOG");
+    }};
+    Assert.assertEquals("SELECT ${id} FROM BLOG WHERE ${id", source.getBoundSql(parameterObject).getSql());
+  }
+
+  @Test
+  public void shouldReevaluateSubstitutionsOnEveryApply() {
+    final MixedSqlNode sqlNode = mixedContents(new TextSqlNode("ORDER BY ${value}"));
+    final DynamicSqlSource source = new DynamicSqlSource(new Configuration(), sqlNode);
+    Assert.assertEquals("ORDER BY name", source.getBoundSql("name").getSql());
+    Assert.assertEquals("ORDER BY id", source.getBoundSql("id").getSql());
+  }
+
+  @Test
+  public void shouldReportDynamicOnlyWhenTextContainsSubstitutions() {
+    Assert.assertFalse(new TextSqlNode("SELECT * FROM BLOG WHERE ID = #{id}").isDynamic());
+    Assert.assertFalse(new TextSqlNode("SELECT \\${id}").isDynamic());
+    Assert.assertFalse(new TextSqlNode("").isDynamic());
+    Assert.assertTrue(new TextSqlNode("${table}").isDynamic());
+  }
+
+  @Test
+  public void shouldApplyInjectionFilterOnEveryApply() {
+    final TextSqlNode textSqlNode = new TextSqlNode("ORDER BY ${value}", Pattern.compile("^[a-zA-Z0-9_]+$"));
+    final DynamicSqlSource source = new DynamicSqlSource(new Configuration(), mixedContents(textSqlNode));
+    Assert.assertEquals("ORDER BY name", source.getBoundSql("name").getSql());
+    Assert.assertEquals("ORDER BY name", source.getBoundSql("name").getSql());
+    for (int i = 0; i < 2; i++) {
+      try {
+        source.getBoundSql("name; DROP TABLE BLOG");
+        Assert.fail();
+      } catch (ScriptingException e) {
+        // expected, also when the rejected value was already checked
+      }
+    }
+  }
+
   @Test
   public void shouldMapNullStringsToEmptyStrings() {
     final String expected = "id=${id}";
@@ -0,0 +1,86 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Test;
+
+public class MultiRowInsertTest {
+
+  private final Configuration configuration = new Configuration();
+
+  @Test
+  public void shouldRepeatTheRow() {
+    MultiRowInsert insert = MultiRowInsert.parse(null, insert(), "INSERT INTO T (A, B) VALUES (?, UPPER(?))");
+    assertNotNull(insert);
+    assertEquals("INSERT INTO T (A, B) VALUES (?, UPPER(?))", insert.buildSql(1));
+    assertEquals("INSERT INTO T (A, B) VALUES (?, UPPER(?)), (?, UPPER(?)), (?, UPPER(?))", insert.buildSql(3));
+  }
+
+  @Test
+  public void shouldIgnoreParenthesesInLiterals() {
+    MultiRowInsert insert = MultiRowInsert.parse(null, insert(), "insert into t values (')', ?)");
+    assertNotNull(insert);
+    assertEquals("insert into t values (')', ?), (')', ?)", insert.buildSql(2));
+  }
+
+  @Test
+  public void shouldNotRewriteOtherStatements() {
+    assertNull(MultiRowInsert.parse(null, insert(), "INSERT INTO T (A) SELECT A FROM S"));
+    assertNull(MultiRowInsert.parse(null, insert(), "INSERT INTO T (A) VALUES (?), (?)"));
+    assertNull(MultiRowInsert.parse(null, insert(), "INSERT INTO T (A) VALUES (?) ON DUPLICATE KEY UPDATE A = ?"));
+    assertNull(MultiRowInsert.parse(null, insert(), "INSERT INTO T (A) VALUES (?"));
+    assertNull(MultiRowInsert.parse(null, statement(SqlCommandType.UPDATE).build(), "UPDATE T SET A = 1 WHERE B IN (VALUES (1))"));
+    MappedStatement selectKey = statement(SqlCommandType.INSERT)
+        .keyGenerator(new SelectKeyGenerator(insert(), false)).build();
+    assertNull(MultiRowInsert.parse(null, selectKey, "INSERT INTO T (A) VALUES (?)"));
+  }
+
+  @Test
+  public void shouldNotRewritePlaceholdersOutsideTheRow() {
+    assertNull(MultiRowInsert.parse(null, insert(), "INSERT INTO T (A) VALUES (?) RETURNING ?"));
+    assertNull(MultiRowInsert.parse(null, insert(), "WITH X AS (SELECT ? FROM DUAL) INSERT INTO T (A) VALUES (?)"));
+    assertNotNull(MultiRowInsert.parse(null, insert(), "INSERT /* ? */ INTO T (A, B) VALUES (?, '?')"));
+  }
+
+  @Test
+  public void shouldLimitRowsByParameterCount() {
+    configuration.setBatchRewriteMaxRows(100);
+    configuration.setBatchRewriteMaxParameters(250);
+    MultiRowInsert insert = MultiRowInsert.parse(null, insert(), "INSERT INTO T (A) VALUES (?)");
+    assertEquals(100, insert.rowsPerStatement(1));
+    assertEquals(25, insert.rowsPerStatement(10));
+    assertEquals(1, insert.rowsPerStatement(300));
+    assertEquals(100, insert.rowsPerStatement(0));
+  }
+
+  private MappedStatement insert() {
+    return statement(SqlCommandType.INSERT).build();
+  }
+
+  private MappedStatement.Builder statement(SqlCommandType type) {
+    return new MappedStatement.Builder(configuration, "statement", new StaticSqlSource(configuration, "sql"), type);
+  }
+
+}
@@ -17,11 +17,17 @@ package org.apache.ibatis.executor.loader;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.Serializable;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Set;
 
 import javassist.util.proxy.Proxy;
 
@@ -47,6 +53,54 @@ public class JavassistProxyTest extends SerializableProxyTest {
     assertTrue(author2 instanceof Proxy);
   }
 
+  @Test
+  public void shouldReuseProxyClassForSameLazyProperties() throws Exception {
+    Configuration configuration = new Configuration();
+    Set<String> lazyProperties = Collections.singleton("bio");
+    Object proxy1 = createProxy(new ResultLoaderMap(lazyProperties), configuration);
+    Object proxy2 = createProxy(new ResultLoaderMap(Collections.singleton("bio")), configuration);
+    Object proxy3 = createProxy(new ResultLoaderMap(Collections.singleton("email")), configuration);
+    assertSame(proxy1.getClass(), proxy2.getClass());
+    assertNotSame(proxy1.getClass(), proxy3.getClass());
+    assertEquals(author, proxy1);
+  }
+
+  @Test
+  public void shouldInterceptOnlyAccessorsOfLazyProperties() throws Exception {
+    Configuration configuration = new Configuration();
+    ResultLoaderMap loader = new ResultLoaderMap(Collections.singleton("bio"));
+    Author proxy = (Author) createProxy(loader, configuration);
+    loader.addLoader("bio", configuration.newMetaObject(proxy), new ResultLoader(configuration, null, null, null, String.class, null, null) {
+      @Override
+      public Object loadResult() throws SQLException {
+        return "loaded";
+      }
+    });
+    assertSame(proxy.getClass(), proxy.getClass().getDeclaredMethod("getBio").getDeclaringClass());
+    try {
+      proxy.getClass().getDeclaredMethod("getUsername");
+      fail("getUsername should not be overridden");
+    } catch (NoSuchMethodException e) {
+      // expected
+    }
+    assertEquals("someone", proxy.getUsername());
+    assertEquals(1, loader.size());
+    assertEquals("loaded", proxy.getBio());
+    assertEquals(0, loader.size());
+  }
+
+  @Test
+  public void shouldInterceptEveryMethodWhenAggressive() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setAggressiveLazyLoading(true);
+    Object proxy = createProxy(new ResultLoaderMap(Collections.singleton("bio")), configuration);
+    proxy.getClass().getDeclaredMethod("getUsername");
+  }
+
+  private Object createProxy(ResultLoaderMap loader, Configuration configuration) {
+    return proxyFactory.createProxy(author, loader, configuration, new DefaultObjectFactory(), new ArrayList<Class<?>>(), new ArrayList<Object>());
+  }
+
   @Test(expected = ExecutorException.class)
   public void shouldFailCallingAnUnloadedProperty() throws Exception {
     // yes, it must go in uppercase
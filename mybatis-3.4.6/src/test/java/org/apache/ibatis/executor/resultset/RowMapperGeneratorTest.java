@@ -0,0 +1,50 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.StringTypeHandler;
+import org.junit.Test;
+
+public class RowMapperGeneratorTest {
+
+  @Test
+  public void shouldUsePrimitiveReaderOfPropertyType() {
+    assertEquals("getInt", RowMapperGenerator.getReader(new IntegerTypeHandler(), int.class).getName());
+    assertNull(RowMapperGenerator.getReader(new IntegerTypeHandler(), long.class));
+    assertNull(RowMapperGenerator.getReader(new IntegerTypeHandler(), Integer.class));
+    assertNull(RowMapperGenerator.getReader(new StringTypeHandler(), int.class));
+  }
+
+  @Test
+  public void shouldNotUsePrimitiveReaderWhenResultReadingIsOverridden() {
+    assertNull(RowMapperGenerator.getReader(new OffsetIntegerTypeHandler(), int.class));
+  }
+
+  static class OffsetIntegerTypeHandler extends IntegerTypeHandler {
+    @Override
+    public Integer getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+      return rs.getInt(columnIndex) + 1;
+    }
+  }
+
+}
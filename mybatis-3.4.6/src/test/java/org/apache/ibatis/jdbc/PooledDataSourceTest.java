@@ -91,6 +91,101 @@ public class PooledDataSourceTest extends BaseDataTest {
     c.close();
   }
 
+  @Test
+  public void shouldReusePreparedStatementsAcrossCheckouts() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolMaximumActiveConnections(1);
+      ds.setPoolPreparedStatementCacheSize(2);
+      Connection c = ds.getConnection();
+      PreparedStatement st = c.prepareStatement("VALUES 1");
+      Object realStatement = st.unwrap(PreparedStatement.class);
+      assertSame(c, st.getConnection());
+      st.setMaxRows(5);
+      st.close();
+      assertTrue(st.isClosed());
+      c.close();
+
+      c = ds.getConnection();
+      PreparedStatement reused = c.prepareStatement("VALUES 1");
+      assertNotSame(st, reused);
+      assertSame(realStatement, reused.unwrap(PreparedStatement.class));
+      assertSame(c, reused.getConnection());
+      assertEquals(0, reused.getMaxRows());
+      PreparedStatement second = c.prepareStatement("VALUES 1");
+      assertNotSame(realStatement, second.unwrap(PreparedStatement.class));
+      second.close();
+      reused.close();
+      c.close();
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  public void shouldNotUseStatementAfterItWasReturnedToTheCache() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolPreparedStatementCacheSize(2);
+      Connection c = ds.getConnection();
+      PreparedStatement st = c.prepareStatement("VALUES 1");
+      st.close();
+      try {
+        st.executeQuery();
+        fail();
+      } catch (SQLException e) {
+        // expected
+      }
+      c.close();
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  public void shouldCloseResultSetWhenStatementIsReturnedToTheCache() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolPreparedStatementCacheSize(2);
+      Connection c = ds.getConnection();
+      PreparedStatement st = c.prepareStatement("VALUES 1");
+      st.setFetchDirection(ResultSet.FETCH_REVERSE);
+      st.setMaxFieldSize(10);
+      ResultSet rs = st.executeQuery();
+      st.close();
+      assertTrue(rs.isClosed());
+      PreparedStatement reused = c.prepareStatement("VALUES 1");
+      assertEquals(ResultSet.FETCH_FORWARD, reused.getFetchDirection());
+      assertEquals(0, reused.getMaxFieldSize());
+      reused.close();
+      c.close();
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  public void shouldCloseEvictedPreparedStatements() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolPreparedStatementCacheSize(1);
+      Connection c = ds.getConnection();
+      PreparedStatement first = c.prepareStatement("VALUES 1");
+      PreparedStatement realFirst = first.unwrap(PreparedStatement.class);
+      first.close();
+      PreparedStatement second = c.prepareStatement("VALUES 2");
+      assertTrue(realFirst.isClosed());
+      ResultSet rs = second.executeQuery();
+      assertTrue(rs.next());
+      assertEquals(2, rs.getInt(1));
+      rs.close();
+      second.close();
+      c.close();
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
   @Ignore("See the comments")
   @Test
   public void shouldReconnectWhenServerKilledLeakedConnection() throws Exception {
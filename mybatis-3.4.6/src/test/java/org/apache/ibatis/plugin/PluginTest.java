@@ -17,11 +17,16 @@ package org.apache.ibatis.plugin;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import org.junit.Test;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 public class PluginTest {
 
@@ -39,6 +44,63 @@ public class PluginTest {
     assertFalse("Always".equals(map.toString()));
   }
 
+  @Test
+  public void shouldReuseProxyClassOfSameTargetClass() {
+    Map first = (Map) new AlwaysMapPlugin().plugin(new HashMap());
+    Map second = (Map) new AlwaysMapPlugin().plugin(new HashMap());
+    assertNotSame(first, second);
+    assertSame(first.getClass(), second.getClass());
+    assertEquals("Always", second.get("Anything"));
+  }
+
+  @Test
+  public void shouldNotWrapTargetWithoutInterceptedInterface() {
+    Object target = new Object();
+    assertSame(target, new AlwaysMapPlugin().plugin(target));
+  }
+
+  @Test
+  public void shouldOnlyInterceptMethodsOfSignatureType() {
+    SortedMap map = new SortedTreeMap();
+    map.put("key", "value");
+    map = (SortedMap) new SortedMapGetPlugin().plugin(map);
+    // get is declared by Map, not by SortedMap
+    assertEquals("value", map.get("key"));
+    assertEquals("Always", map.firstKey());
+  }
+
+  @Test
+  public void shouldPassThroughStackedPlugins() {
+    Map target = new HashMap();
+    target.put("key", "value");
+    Map map = (Map) new AlwaysMapPlugin().plugin(target);
+    map = (Map) new SizePlugin().plugin(map);
+    map = (Map) new SizePlugin().plugin(map);
+    assertEquals("Always", map.get("key"));
+    assertEquals(-1, map.size());
+    assertTrue(map.containsKey("key"));
+    map.put("other", "value");
+    assertEquals(2, target.size());
+  }
+
+  public static class SortedTreeMap extends TreeMap implements SortedMap {
+  }
+
+  @Intercepts({
+      @Signature(type = SortedMap.class, method = "get", args = {Object.class}),
+      @Signature(type = SortedMap.class, method = "firstKey", args = {})})
+  public static class SortedMapGetPlugin extends AlwaysMapPlugin {
+  }
+
+  @Intercepts({
+      @Signature(type = Map.class, method = "size", args = {})})
+  public static class SizePlugin extends AlwaysMapPlugin {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      return -1;
+    }
+  }
+
   @Intercepts({
       @Signature(type = Map.class, method = "get", args = {Object.class})})
   public static class AlwaysMapPlugin implements Interceptor {
@@ -19,7 +19,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -302,4 +304,97 @@ public class MetaObjectTest {
     assertTrue(meta.hasGetter("filterParams[2]"));
   }
 
+  @Test
+  public void shouldCompileBeanPropertyPathsOnce() {
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(RichType.class);
+    PropertyPath path = reflector.getPropertyPath("richType.richType.richProperty", reflectorFactory);
+    assertNotNull(path);
+    assertSame(path, reflector.getPropertyPath("richType.richType.richProperty", reflectorFactory));
+    assertNull(reflector.getPropertyPath("richList[0]", reflectorFactory));
+    assertNull(reflector.getPropertyPath("richMap.key", reflectorFactory));
+  }
+
+  @Test
+  public void shouldGetAndSetNestedPropertyOfSubclassValue() {
+    RichType rich = new RichType();
+    rich.setRichType(new RichType() {
+    });
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    meta.setValue("richType.richType.richProperty", "foo");
+    assertEquals("foo", rich.getRichType().getRichType().getRichProperty());
+    assertEquals("foo", meta.getValue("richType.richType.richProperty"));
+  }
+
+  @Test
+  public void shouldGetAndSetNestedMapPairThroughBeanPath() {
+    RichType rich = new RichType();
+    rich.setRichType(new RichType());
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    meta.setValue("richType.richMap.key", "foo");
+    assertEquals("foo", rich.getRichType().getRichMap().get("key"));
+    assertEquals("foo", meta.getValue("richType.richMap.key"));
+  }
+
+  @Test
+  public void shouldRaiseGetterAndSetterExceptionsLikeBeanWrapper() {
+    MetaObject compiled = SystemMetaObject.forObject(new FailingBean());
+    DefaultReflectorFactory uncachedReflectorFactory = new DefaultReflectorFactory();
+    uncachedReflectorFactory.setClassCacheEnabled(false);
+    MetaObject interpreted = MetaObject.forObject(new FailingBean(), SystemMetaObject.DEFAULT_OBJECT_FACTORY,
+        SystemMetaObject.DEFAULT_OBJECT_WRAPPER_FACTORY, uncachedReflectorFactory);
+    for (MetaObject meta : new MetaObject[] {compiled, interpreted}) {
+      try {
+        meta.getValue("checked");
+        fail();
+      } catch (ReflectionException e) {
+        assertTrue(e.getCause() instanceof Exception);
+        assertEquals("checked", e.getCause().getMessage());
+      }
+      try {
+        meta.getValue("unchecked");
+        fail();
+      } catch (IllegalStateException e) {
+        assertEquals("unchecked", e.getMessage());
+      }
+      try {
+        meta.setValue("unchecked", "value");
+        fail();
+      } catch (ReflectionException e) {
+        assertTrue(e.getCause() instanceof IllegalStateException);
+      }
+    }
+  }
+
+  @Test
+  public void shouldResolveReflectorOncePerBean() {
+    final List<Class<?>> types = new ArrayList<Class<?>>();
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory() {
+      @Override
+      public Reflector findForClass(Class<?> type) {
+        types.add(type);
+        return super.findForClass(type);
+      }
+    };
+    MetaObject meta = MetaObject.forObject(new RichType(), SystemMetaObject.DEFAULT_OBJECT_FACTORY,
+        SystemMetaObject.DEFAULT_OBJECT_WRAPPER_FACTORY, reflectorFactory);
+    assertEquals(1, types.size());
+    meta.setValue("richProperty", "foo");
+    assertEquals("foo", meta.getValue("richProperty"));
+  }
+
+  public static class FailingBean {
+    public String getChecked() throws Exception {
+      throw new Exception("checked");
+    }
+
+    public String getUnchecked() {
+      throw new IllegalStateException("unchecked");
+    }
+
+    public void setUnchecked(String value) {
+      throw new IllegalStateException("unchecked");
+    }
+  }
+
 }
@@ -18,8 +18,11 @@ package org.apache.ibatis.reflection;
 import static org.junit.Assert.*;
 
 import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.MethodHandleInvoker;
 import org.junit.Assert;
 import org.junit.Test;
 import static com.googlecode.catchexception.apis.BDDCatchException.*;
@@ -210,4 +213,56 @@ public class ReflectorTest {
     Reflector reflector = reflectorFactory.findForClass(Bean.class);
     assertTrue((Boolean)reflector.getGetInvoker("bool").invoke(new Bean(), new Byte[0]));
   }
+
+  @Test
+  public void shouldInvokePropertiesThroughMethodHandles() throws Exception {
+    @SuppressWarnings("unused")
+    class Bean {
+      private long count;
+      private String name;
+      public long getCount() {return count;}
+      public void setCount(long count) {this.count = count;}
+    }
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    assertTrue(reflector.getSetInvoker("count") instanceof MethodHandleInvoker);
+    assertTrue(reflector.getGetInvoker("name") instanceof MethodHandleInvoker);
+    Bean bean = new Bean();
+    reflector.getSetInvoker("count").invoke(bean, new Object[] {Integer.valueOf(3)});
+    reflector.getSetInvoker("name").invoke(bean, new Object[] {"foo"});
+    assertEquals(3L, reflector.getGetInvoker("count").invoke(bean, new Object[0]));
+    assertEquals("foo", reflector.getGetInvoker("name").invoke(bean, new Object[0]));
+    assertEquals(long.class, reflector.getSetInvoker("count").getType());
+  }
+
+  @Test
+  public void shouldFailLikeReflectionWhenInvokingThroughMethodHandles() throws Exception {
+    @SuppressWarnings("unused")
+    class Bean {
+      public void setCount(int count) {throw new IllegalStateException("count");}
+    }
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    Invoker invoker = reflectorFactory.findForClass(Bean.class).getSetInvoker("count");
+    when(invoker).invoke(new Bean(), new Object[] {Long.valueOf(1L)});
+    then(caughtException()).isInstanceOf(IllegalArgumentException.class);
+    when(invoker).invoke(new Bean(), new Object[] {null});
+    then(caughtException()).isInstanceOf(IllegalArgumentException.class);
+    when(invoker).invoke("bean", new Object[] {1});
+    then(caughtException()).isInstanceOf(IllegalArgumentException.class);
+    when(invoker).invoke(new Bean(), new Object[] {1});
+    then(caughtException()).isInstanceOf(InvocationTargetException.class)
+      .hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void shouldSetFinalFieldsThroughMethodHandles() throws Exception {
+    class Bean {
+      private final Integer id = null;
+    }
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    Bean bean = new Bean();
+    reflector.getSetInvoker("id").invoke(bean, new Object[] {1});
+    assertEquals(Integer.valueOf(1), bean.id);
+  }
 }
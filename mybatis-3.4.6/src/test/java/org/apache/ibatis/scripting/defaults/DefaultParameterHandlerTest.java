@@ -21,14 +21,18 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.builder.StaticSqlSource;
 import org.apache.ibatis.mapping.*;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.IntegerTypeHandler;
 import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.ObjectTypeHandler;
 import org.apache.ibatis.type.TypeException;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.apache.ibatis.type.UnknownTypeHandler;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -36,6 +40,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -70,6 +75,29 @@ public class DefaultParameterHandlerTest {
 
   }
 
+  @Test
+  public void setParametersResolvesUnknownTypeHandlerOncePerValueType() throws SQLException {
+    final MappedStatement mappedStatement = getMappedStatement();
+    final Configuration config = mappedStatement.getConfiguration();
+    final ParameterMapping parameterMapping = new ParameterMapping.Builder(config, "value", new UnknownTypeHandler(config.getTypeHandlerRegistry())).build();
+    final BoundSql boundSql = new BoundSql(config, "some select statement", Collections.singletonList(parameterMapping), null);
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    Map<String, Object> parameterObject = new HashMap<String, Object>();
+    parameterObject.put("value", 1);
+    new DefaultParameterHandler(mappedStatement, parameterObject, boundSql).setParameters(ps);
+    verify(ps).setInt(1, 1);
+
+    TypeHandler<?> integerHandler = parameterMapping.resolveTypeHandler(Integer.class);
+    Assert.assertTrue(integerHandler instanceof IntegerTypeHandler);
+    Assert.assertSame(integerHandler, parameterMapping.resolveTypeHandler(Integer.class));
+
+    parameterObject.put("value", "a");
+    new DefaultParameterHandler(mappedStatement, parameterObject, boundSql).setParameters(ps);
+    verify(ps).setString(1, "a");
+    Assert.assertTrue(parameterMapping.resolveTypeHandler(Object.class) instanceof ObjectTypeHandler);
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
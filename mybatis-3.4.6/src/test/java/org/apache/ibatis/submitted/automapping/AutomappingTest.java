@@ -65,6 +65,22 @@ public class AutomappingTest {
     }
   }
 
+  @Test
+  public void shouldNotReuseAutoMappingsOfOtherColumns() {
+    sqlSessionFactory.getConfiguration().setAutoMappingBehavior(AutoMappingBehavior.NONE);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (boolean reversed : new boolean[] { false, true, false, true }) {
+        User user = mapper.getUserWithColumnsReversed(2, reversed);
+        Assert.assertEquals(Integer.valueOf(2), user.getId());
+        Assert.assertEquals("User2", user.getName());
+      }
+    } finally {
+      sqlSession.close();
+    }
+  }
+
   @Test
   public void shouldGetAUserWhithPhoneNumber() {
     sqlSessionFactory.getConfiguration().setAutoMappingBehavior(AutoMappingBehavior.NONE);
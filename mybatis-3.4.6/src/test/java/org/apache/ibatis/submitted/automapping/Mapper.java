@@ -17,12 +17,16 @@ package org.apache.ibatis.submitted.automapping;
 
 import java.util.List;
 
+import org.apache.ibatis.annotations.Param;
+
 public interface Mapper {
 
   User getUser(Integer id);
 
   User getUserWithPhoneNumber(Integer id);
 
+  User getUserWithColumnsReversed(@Param("id") Integer id, @Param("reversed") boolean reversed);
+
   User getUserWithPets_Inline(Integer id);
 
   User getUserWithPets_External(Integer id);
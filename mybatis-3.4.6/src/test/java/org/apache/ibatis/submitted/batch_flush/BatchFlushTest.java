@@ -0,0 +1,128 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_flush;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.executor.BatchExecutorException;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchFlushTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_flush/Config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_flush/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldFlushEveryBatchSizeRows() {
+    SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 7; i++) {
+        mapper.insertWithId(new User(i, "User" + i));
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(3, results.size());
+      assertArrayEquals(new int[] { 1, 1, 1 }, results.get(0).getUpdateCounts());
+      assertArrayEquals(new int[] { 1, 1, 1 }, results.get(1).getUpdateCounts());
+      assertArrayEquals(new int[] { 1 }, results.get(2).getUpdateCounts());
+      // already executed batches do not keep their parameters
+      assertTrue(results.get(0).getParameterObjects().isEmpty());
+      assertTrue(results.get(1).getParameterObjects().isEmpty());
+      assertEquals(1, results.get(2).getParameterObjects().size());
+      assertEquals(Collections.emptyList(), sqlSession.flushStatements());
+      assertEquals(7, mapper.count());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldFlushWhenParametersExceedBatchMaxBytes() {
+    sqlSessionFactory.getConfiguration().setBatchSize(0);
+    // an id and a five character name are estimated at 18 bytes
+    sqlSessionFactory.getConfiguration().setBatchMaxBytes(30);
+    SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 5; i++) {
+        mapper.insertWithId(new User(i, "User" + i));
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(3, results.size());
+      assertArrayEquals(new int[] { 1, 1 }, results.get(0).getUpdateCounts());
+      assertArrayEquals(new int[] { 1, 1 }, results.get(1).getUpdateCounts());
+      assertArrayEquals(new int[] { 1 }, results.get(2).getUpdateCounts());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldReportEarlierBatchesWhenAnAutomaticFlushFails() {
+    SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 3; i++) {
+        mapper.insertWithId(new User(i, "User" + i));
+      }
+      mapper.insertWithId(new User(3, "User3"));
+      mapper.insertWithId(new User(4, "name that is too long"));
+      try {
+        mapper.insertWithId(new User(5, "User5"));
+        fail();
+      } catch (Exception e) {
+        BatchExecutorException cause = (BatchExecutorException) e.getCause();
+        assertEquals(1, cause.getSuccessfulBatchResults().size());
+        assertArrayEquals(new int[] { 1, 1, 1 }, cause.getSuccessfulBatchResults().get(0).getUpdateCounts());
+        assertArrayEquals(new int[] { 1 }, cause.getBatchUpdateException().getUpdateCounts());
+      }
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+}
@@ -0,0 +1,149 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_group;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchGroupTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_group/Config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_group/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldGroupInterleavedStatements() {
+    SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 1; i <= 3; i++) {
+        mapper.insertOrder(i, "Order" + i);
+        mapper.insertLine(i, i, "Line" + i);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(2, results.size());
+      assertEquals("org.apache.ibatis.submitted.batch_group.Mapper.insertOrder", results.get(0).getMappedStatement().getId());
+      assertArrayEquals(new int[] { 1, 1, 1 }, results.get(0).getUpdateCounts());
+      assertEquals("org.apache.ibatis.submitted.batch_group.Mapper.insertLine", results.get(1).getMappedStatement().getId());
+      assertArrayEquals(new int[] { 1, 1, 1 }, results.get(1).getUpdateCounts());
+      assertEquals(3, mapper.countLines());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldNotMoveUpdatesAcrossEachOther() {
+    SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertOrder(1, "Order1");
+      mapper.renameOrder(1, "First");
+      mapper.renameOrderIfExists(1, "Second");
+      mapper.renameOrder(1, "Third");
+      assertEquals(4, sqlSession.flushStatements().size());
+      assertEquals("Third", mapper.getOrderName(1));
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldNotGroupInsertsAcrossDelete() {
+    SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertOrder(1, "Old");
+      mapper.insertOrder(2, "Other");
+      mapper.deleteOrder(1);
+      mapper.insertOrder(1, "New");
+      mapper.insertOrder(3, "Other");
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(3, results.size());
+      assertArrayEquals(new int[] { 1, 1 }, results.get(2).getUpdateCounts());
+      assertEquals("New", mapper.getOrderName(1));
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldRunStatementsInConfiguredOrder() {
+    sqlSessionFactory.getConfiguration().setBatchStatementOrder(
+        Arrays.asList("org.apache.ibatis.submitted.batch_group.Mapper.insertOrder"));
+    SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 1; i <= 3; i++) {
+        mapper.insertLine(i, i, "Line" + i);
+        mapper.insertOrder(i, "Order" + i);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(2, results.size());
+      assertEquals("org.apache.ibatis.submitted.batch_group.Mapper.insertOrder", results.get(0).getMappedStatement().getId());
+      assertEquals("org.apache.ibatis.submitted.batch_group.Mapper.insertLine", results.get(1).getMappedStatement().getId());
+      assertEquals(3, mapper.countLines());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldStartNewBatchOnEveryStatementChangeWhenNotGrouping() {
+    sqlSessionFactory.getConfiguration().setBatchGroupStatements(false);
+    SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 1; i <= 3; i++) {
+        mapper.insertOrder(i, "Order" + i);
+        mapper.insertLine(i, i, "Line" + i);
+      }
+      assertEquals(6, sqlSession.flushStatements().size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+}
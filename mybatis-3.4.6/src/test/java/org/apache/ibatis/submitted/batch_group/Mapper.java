@@ -0,0 +1,36 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_group;
+
+import org.apache.ibatis.annotations.Param;
+
+public interface Mapper {
+
+  void insertOrder(@Param("id") int id, @Param("name") String name);
+
+  void insertLine(@Param("id") int id, @Param("orderId") int orderId, @Param("name") String name);
+
+  void renameOrder(@Param("id") int id, @Param("name") String name);
+
+  void renameOrderIfExists(@Param("id") int id, @Param("name") String name);
+
+  void deleteOrder(int id);
+
+  int countLines();
+
+  String getOrderName(int id);
+
+}
@@ -0,0 +1,134 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_lazy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.List;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchLazyTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_lazy/Config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_lazy/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldLoadPropertyOfAllBlogsAtOnce() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Blog> blogs = sqlSession.selectList("org.apache.ibatis.submitted.batch_lazy.Mapper.getBlogsWithBatchKey");
+      assertEquals(1, getQueries().size());
+      assertEquals(2, blogs.get(0).getPosts().size());
+      // one select for all blogs, run by the first access
+      assertEquals(2, getQueries().size());
+      assertEquals(0, blogs.get(1).getPosts().size());
+      assertEquals("Lambdas", blogs.get(2).getPosts().get(0).getSubject());
+      assertEquals(2, getQueries().size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldLoadEachBlogWithoutBatchKey() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Blog> blogs = sqlSession.selectList("org.apache.ibatis.submitted.batch_lazy.Mapper.getBlogs");
+      assertEquals(2, blogs.get(0).getPosts().size());
+      // siblings are not loaded, that would be one select per blog
+      assertEquals(2, getQueries().size());
+      assertEquals("jim", blogs.get(2).getAuthor().getName());
+      assertEquals(3, getQueries().size());
+      // the two blogs of jim share the cached select
+      assertSame(blogs.get(0).getAuthor(), blogs.get(2).getAuthor());
+      assertEquals(3, getQueries().size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldLoadWithOneSelectForBatchKey() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Blog> blogs = sqlSession.selectList("org.apache.ibatis.submitted.batch_lazy.Mapper.getBlogsWithBatchKey");
+      assertEquals(2, blogs.get(0).getPosts().size());
+      assertEquals(0, blogs.get(1).getPosts().size());
+      assertEquals(1, blogs.get(2).getPosts().size());
+      assertEquals(2, getQueries().size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldLoadAllBlogsAfterSessionIsClosed() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    List<Blog> blogs;
+    try {
+      blogs = sqlSession.selectList("org.apache.ibatis.submitted.batch_lazy.Mapper.getBlogsWithBatchKey");
+    } finally {
+      sqlSession.close();
+    }
+    assertEquals(2, blogs.get(0).getPosts().size());
+    assertEquals(0, blogs.get(1).getPosts().size());
+    assertEquals(1, blogs.get(2).getPosts().size());
+    assertEquals(2, getQueries().size());
+  }
+
+  @Test
+  public void shouldLoadEachBlogWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setBatchLazyLoading(false);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Blog> blogs = sqlSession.selectList("org.apache.ibatis.submitted.batch_lazy.Mapper.getBlogs");
+      assertEquals(2, blogs.get(0).getPosts().size());
+      assertEquals(2, getQueries().size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  private List<String> getQueries() {
+    return ((QueryCounter) sqlSessionFactory.getConfiguration().getInterceptors().get(0)).getQueries();
+  }
+
+}
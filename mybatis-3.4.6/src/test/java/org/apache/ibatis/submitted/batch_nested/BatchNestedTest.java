@@ -0,0 +1,139 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_nested;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchNestedTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_nested/Config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_nested/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldLoadNestedSelectsOnceForAllRows() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Person> persons = sqlSession.selectList("org.apache.ibatis.submitted.batch_nested.Mapper.getPersons");
+      assertPersons(persons);
+      assertSame(persons.get(0).getCompany(), persons.get(2).getCompany());
+      // persons, companies and pets
+      assertEquals(3, getQueries().size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldSplitKeysIntoBatches() {
+    sqlSessionFactory.getConfiguration().setNestedQueryBatchSize(2);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Person> persons = sqlSession.selectList("org.apache.ibatis.submitted.batch_nested.Mapper.getPersons");
+      assertPersons(persons);
+      // persons, one select for the two companies, two selects for the three owners
+      assertEquals(4, getQueries().size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldLoadRowByRowForResultHandler() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      final List<Person> persons = new ArrayList<Person>();
+      sqlSession.select("org.apache.ibatis.submitted.batch_nested.Mapper.getPersons", new ResultHandler<Person>() {
+        @Override
+        public void handleResult(ResultContext<? extends Person> resultContext) {
+          // every row is complete when it is handed over
+          assertTrue(resultContext.getResultObject().getPets() != null);
+          persons.add(resultContext.getResultObject());
+        }
+      });
+      assertPersons(persons);
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldLoadLazyPropertiesOfAllRowsAtOnce() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Person> persons = sqlSession.selectList("org.apache.ibatis.submitted.batch_nested.Mapper.getLazyPersons");
+      assertEquals(1, getQueries().size());
+      assertEquals(2, persons.get(0).getPets().size());
+      assertEquals(2, getQueries().size());
+      assertEquals(0, persons.get(1).getPets().size());
+      assertEquals("Kitty", persons.get(2).getPets().get(0).getName());
+      assertEquals(2, getQueries().size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  private void assertPersons(List<Person> persons) {
+    assertEquals(3, persons.size());
+    Person john = persons.get(0);
+    assertEquals("Acme", john.getCompany().getName());
+    assertEquals(2, john.getPets().size());
+    assertEquals("Rex", john.getPets().get(0).getName());
+    assertEquals("Tom", john.getPets().get(1).getName());
+    Person jane = persons.get(1);
+    assertEquals("Globex", jane.getCompany().getName());
+    assertEquals(0, jane.getPets().size());
+    Person mike = persons.get(2);
+    assertEquals("Acme", mike.getCompany().getName());
+    assertEquals(1, mike.getPets().size());
+  }
+
+  private List<String> getQueries() {
+    return ((QueryCounter) sqlSessionFactory.getConfiguration().getInterceptors().get(0)).getQueries();
+  }
+
+}
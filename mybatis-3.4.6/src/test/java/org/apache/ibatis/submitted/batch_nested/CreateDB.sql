@@ -0,0 +1,44 @@
+--
+--    Copyright 2009-2018 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+drop table person if exists;
+drop table company if exists;
+drop table pet if exists;
+
+create table company (
+id int,
+name varchar(16)
+);
+
+create table pet (
+id int,
+owner_id int,
+name varchar(16)
+);
+
+create table person (
+id int,
+name varchar(16),
+company_id bigint
+);
+
+insert into company (id, name) values (1, 'Acme');
+insert into company (id, name) values (2, 'Globex');
+insert into pet (id, owner_id, name) values (1, 1, 'Rex');
+insert into pet (id, owner_id, name) values (2, 1, 'Tom');
+insert into pet (id, owner_id, name) values (3, 3, 'Kitty');
+insert into person (id, name, company_id) values (1, 'John', 1);
+insert into person (id, name, company_id) values (2, 'Jane', 2);
+insert into person (id, name, company_id) values (3, 'Mike', 1);
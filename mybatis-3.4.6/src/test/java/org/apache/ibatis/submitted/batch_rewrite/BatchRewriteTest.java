@@ -0,0 +1,157 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_rewrite;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.executor.BatchExecutorException;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchRewriteTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_rewrite/Config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_rewrite/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldInsertAllRowsAndAssignGeneratedKeys() {
+    List<User> users = new ArrayList<User>();
+    SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 5; i++) {
+        User user = new User(null, "User" + i);
+        mapper.insert(user);
+        users.add(user);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(1, results.size());
+      assertEquals(5, results.get(0).getParameterObjects().size());
+      assertArrayEquals(new int[] { 1, 1, 1, 1, 1 }, results.get(0).getUpdateCounts());
+      for (int i = 0; i < 5; i++) {
+        assertEquals(Integer.valueOf(i), users.get(i).getId());
+      }
+      sqlSession.commit();
+    } finally {
+      sqlSession.close();
+    }
+
+    sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<User> inserted = sqlSession.getMapper(Mapper.class).select();
+      assertEquals(5, inserted.size());
+      for (int i = 0; i < 5; i++) {
+        assertEquals("User" + i, inserted.get(i).getName());
+      }
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldBindEachRowWhenTheParameterObjectIsReused() {
+    SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User();
+      for (int i = 0; i < 3; i++) {
+        user.setId(100 + i);
+        user.setName("User" + i);
+        mapper.insertWithId(user);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertArrayEquals(new int[] { 1, 1, 1 }, results.get(0).getUpdateCounts());
+      List<User> inserted = mapper.select();
+      assertEquals(3, inserted.size());
+      for (int i = 0; i < 3; i++) {
+        assertEquals(Integer.valueOf(100 + i), inserted.get(i).getId());
+        assertEquals("User" + i, inserted.get(i).getName());
+      }
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldKeepInterleavedStatementsInOrder() {
+    SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertWithId(new User(10, "A"));
+      mapper.insertWithId(new User(11, "B"));
+      mapper.insert(new User(null, "C"));
+      mapper.insertWithId(new User(20, "D"));
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(3, results.size());
+      assertArrayEquals(new int[] { 1, 1 }, results.get(0).getUpdateCounts());
+      assertArrayEquals(new int[] { 1 }, results.get(1).getUpdateCounts());
+      assertArrayEquals(new int[] { 1 }, results.get(2).getUpdateCounts());
+      assertEquals(4, mapper.count());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldReportFailedRows() {
+    SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertWithId(new User(1, "A"));
+      mapper.insertWithId(new User(2, "B"));
+      mapper.insertWithId(new User(3, "name that is too long"));
+      try {
+        sqlSession.flushStatements();
+        fail();
+      } catch (Exception e) {
+        BatchExecutorException cause = (BatchExecutorException) e.getCause();
+        assertArrayEquals(new int[] { 1, 1 }, cause.getBatchUpdateException().getUpdateCounts());
+      }
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+}
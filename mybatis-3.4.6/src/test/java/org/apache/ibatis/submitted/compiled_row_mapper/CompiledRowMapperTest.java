@@ -0,0 +1,178 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.executor.resultset.RowMapper;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.log4j.Appender;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.apache.log4j.varia.NullAppender;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompiledRowMapperTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mapper/Config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mapper/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldMapRowsWithGeneratedClass() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<User> users = sqlSession.selectList("org.apache.ibatis.submitted.compiled_row_mapper.Mapper.getUsers");
+      assertEquals(3, users.size());
+      User user = users.get(0);
+      assertTrue(user.getNameSetter().startsWith(RowMapper.class.getName() + "$$User$$"));
+      assertEquals(1, user.getId());
+      assertEquals("User1", user.getName());
+      assertEquals(Timestamp.valueOf("2018-01-02 03:04:05").getTime(), user.getCreatedOn().getTime());
+      assertEquals(Double.valueOf(1.5), user.getScore());
+      assertTrue(user.isActive());
+      assertEquals(new BigDecimal("10.25"), user.getBalance());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldSkipNullValues() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      User user = sqlSession.<User>selectList("org.apache.ibatis.submitted.compiled_row_mapper.Mapper.getUsers").get(1);
+      assertEquals(2, user.getId());
+      assertNull(user.getCreatedOn());
+      assertNull(user.getScore());
+      assertFalse(user.isActive());
+      assertNull(user.getBalance());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldCallSettersOnNulls() {
+    sqlSessionFactory.getConfiguration().setCallSettersOnNulls(true);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      User user = sqlSession.<User>selectList("org.apache.ibatis.submitted.compiled_row_mapper.Mapper.getUsers").get(2);
+      assertEquals(3, user.getId());
+      assertNull(user.getName());
+      assertTrue(user.getNameSetter().startsWith(RowMapper.class.getName()));
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldReturnNullForEmptyRow() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<User> users = sqlSession.selectList("org.apache.ibatis.submitted.compiled_row_mapper.Mapper.getEmptyRow");
+      assertEquals(1, users.size());
+      assertNull(users.get(0));
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldReturnInstanceForEmptyRow() {
+    sqlSessionFactory.getConfiguration().setReturnInstanceForEmptyRow(true);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<User> users = sqlSession.selectList("org.apache.ibatis.submitted.compiled_row_mapper.Mapper.getEmptyRow");
+      assertEquals(1, users.size());
+      assertNull(users.get(0).getName());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldReportUnknownColumnsOnEachExecution() {
+    sqlSessionFactory.getConfiguration().setAutoMappingUnknownColumnBehavior(AutoMappingUnknownColumnBehavior.WARNING);
+    final List<LoggingEvent> warnings = new ArrayList<LoggingEvent>();
+    Appender appender = new NullAppender() {
+      @Override
+      public void doAppend(LoggingEvent event) {
+        warnings.add(event);
+      }
+    };
+    Logger logger = Logger.getLogger(AutoMappingUnknownColumnBehavior.class);
+    logger.addAppender(appender);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      for (int i = 1; i <= 2; i++) {
+        List<User> users = sqlSession.selectList("org.apache.ibatis.submitted.compiled_row_mapper.Mapper.getUsersWithUnknownColumn");
+        assertEquals("User1", users.get(0).getName());
+        assertFalse(users.get(0).getNameSetter().startsWith(RowMapper.class.getName()));
+        sqlSession.clearCache();
+        assertEquals(i, warnings.size());
+      }
+    } finally {
+      sqlSession.close();
+      logger.removeAppender(appender);
+    }
+  }
+
+  @Test
+  public void shouldUseReflectionForDiscriminatedResultMap() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<User> users = sqlSession.selectList("org.apache.ibatis.submitted.compiled_row_mapper.Mapper.getDiscriminatedUsers");
+      assertEquals(3, users.size());
+      assertFalse(users.get(0).getNameSetter().startsWith(RowMapper.class.getName()));
+      assertEquals("User1", users.get(0).getName());
+      assertEquals("admin", ((Admin) users.get(1)).getRole());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+}
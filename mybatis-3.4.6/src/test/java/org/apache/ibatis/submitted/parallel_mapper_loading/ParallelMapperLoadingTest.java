@@ -0,0 +1,78 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.parallel_mapper_loading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Properties;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Test;
+
+public class ParallelMapperLoadingTest {
+
+  @Test
+  public void shouldLoadMappersLikeSequentialLoading() throws Exception {
+    Configuration sequential = build(false);
+    Configuration parallel = build(true);
+
+    assertThat(parallel.isParallelMapperLoading()).isTrue();
+    assertThat(parallel.getIncompleteResultMaps()).isEmpty();
+    assertThat(parallel.getIncompleteCacheRefs()).isEmpty();
+    assertThat(parallel.getIncompleteStatements()).isEmpty();
+    assertThat(parallel.getMappedStatementNames()).containsOnlyElementsOf(sequential.getMappedStatementNames());
+    assertThat(parallel.getResultMapNames()).containsOnlyElementsOf(sequential.getResultMapNames());
+    assertThat(parallel.getResultMapNames()).hasSameSizeAs(sequential.getResultMapNames());
+    assertThat(parallel.getResultMap("org.apache.ibatis.submitted.xml_external_ref.ResultMapReferencePersonMapper.dogResult")
+        .getResultMappings()).hasSize(3);
+    assertThat(parallel.getMappedStatement("org.apache.ibatis.submitted.xml_external_ref.MultipleCrossIncludePersonMapper.select")
+        .getCache().getId()).isEqualTo("org.apache.ibatis.submitted.xml_external_ref.MultipleCrossIncludePetMapper");
+  }
+
+  @Test
+  public void shouldReportTheMissingMapperResource() throws Exception {
+    String config = "<!DOCTYPE configuration PUBLIC \"-//mybatis.org//DTD Config 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-config.dtd\">"
+        + "<configuration><settings><setting name=\"parallelMapperLoading\" value=\"true\"/></settings><mappers>"
+        + "<mapper resource=\"org/apache/ibatis/submitted/xml_external_ref/MultipleCrossIncludePetMapper.xml\"/>"
+        + "<mapper resource=\"org/apache/ibatis/submitted/parallel_mapper_loading/MissingMapper.xml\"/>"
+        + "</mappers></configuration>";
+    try {
+      new SqlSessionFactoryBuilder().build(new StringReader(config));
+      fail("Should have failed on the missing mapper");
+    } catch (Exception e) {
+      assertThat(e.getCause()).isInstanceOf(BuilderException.class);
+      assertThat(e.getMessage()).contains("MissingMapper.xml");
+    }
+  }
+
+  private Configuration build(boolean parallelMapperLoading) throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("parallelMapperLoading", String.valueOf(parallelMapperLoading));
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/parallel_mapper_loading/mybatis-config.xml");
+    try {
+      return new SqlSessionFactoryBuilder().build(reader, properties).getConfiguration();
+    } finally {
+      reader.close();
+    }
+  }
+
+}
@@ -0,0 +1,153 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.parallel_nested;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelNestedTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/parallel_nested/Config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/parallel_nested/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldLoadNestedSelectsConcurrently() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Person> persons = sqlSession.selectList("org.apache.ibatis.submitted.parallel_nested.Mapper.getPersonsInParallel");
+      assertPersons(persons);
+      // three selects for the first row, two for the second, one of each on the calling thread
+      assertEquals(3, getExecutor().getExecutions());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldReuseWorkerConnectionsAndResultsAcrossRows() {
+    PooledDataSource dataSource = (PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment().getDataSource();
+    long requests = dataSource.getPoolState().getRequestCount();
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Person> persons = sqlSession.selectList("org.apache.ibatis.submitted.parallel_nested.Mapper.getPersonsTwiceInParallel");
+      assertEquals(4, persons.size());
+      assertPersons(persons.subList(1, 3));
+      assertSame(persons.get(0).getAddress(), persons.get(1).getAddress());
+      // the repeated rows reuse the results of the first ones
+      assertEquals(3, getExecutor().getExecutions());
+      // the session's connection and one per worker, the workers are closed with the query
+      assertEquals(3, dataSource.getPoolState().getRequestCount() - requests);
+      assertEquals(1, dataSource.getPoolState().getActiveConnectionCount());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void shouldRunSelectsOnCallingThreadWhenPoolIsBusy() {
+    final List<Runnable> queued = new ArrayList<Runnable>();
+    // a saturated pool, nothing it is given ever starts
+    sqlSessionFactory.getConfiguration().setAsyncExecutor(new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        queued.add(command);
+      }
+    });
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Person> persons = sqlSession.selectList("org.apache.ibatis.submitted.parallel_nested.Mapper.getPersonsInParallel");
+      assertPersons(persons);
+      assertEquals(3, queued.size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldBoundConcurrentSelects() {
+    sqlSessionFactory.getConfiguration().setNestedQueryParallelism(2);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Person> persons = sqlSession.selectList("org.apache.ibatis.submitted.parallel_nested.Mapper.getPersons");
+      assertPersons(persons);
+      // first row runs in two rounds (2 + 1 selects), second row in one (2 selects)
+      assertEquals(2, getExecutor().getExecutions());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldLoadNestedSelectsSequentiallyByDefault() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Person> persons = sqlSession.selectList("org.apache.ibatis.submitted.parallel_nested.Mapper.getPersons");
+      assertPersons(persons);
+      assertEquals(0, getExecutor().getExecutions());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  private void assertPersons(List<Person> persons) {
+    assertEquals(2, persons.size());
+    Person john = persons.get(0);
+    assertEquals("Tokyo", john.getAddress().getCity());
+    assertEquals("Acme", john.getCompany().getName());
+    assertEquals(2, john.getPets().size());
+    assertEquals("Rex", john.getPets().get(0).getName());
+    Person jane = persons.get(1);
+    assertEquals("Paris", jane.getAddress().getCity());
+    assertNull(jane.getCompany());
+    assertEquals(1, jane.getPets().size());
+  }
+
+  private RecordingExecutor getExecutor() {
+    return (RecordingExecutor) sqlSessionFactory.getConfiguration().getAsyncExecutor();
+  }
+
+}
@@ -0,0 +1,54 @@
+--
+--    Copyright 2009-2018 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+drop table blog if exists;
+drop table author if exists;
+drop table post if exists;
+drop table comment if exists;
+
+create table blog (
+id int,
+title varchar(16)
+);
+
+create table author (
+id int,
+name varchar(16)
+);
+
+create table post (
+id int,
+blog_id int,
+author_id int,
+subject varchar(16)
+);
+
+create table comment (
+id int,
+post_id int,
+text varchar(16)
+);
+
+insert into blog (id, title) values (1, 'Databases');
+insert into blog (id, title) values (2, 'Cooking');
+insert into blog (id, title) values (3, 'Java');
+insert into author (id, name) values (1, 'jim');
+insert into author (id, name) values (2, 'sally');
+insert into post (id, blog_id, author_id, subject) values (1, 1, 1, 'Indexes');
+insert into post (id, blog_id, author_id, subject) values (2, 1, 2, 'Joins');
+insert into post (id, blog_id, author_id, subject) values (3, 2, 1, 'Pasta');
+insert into comment (id, post_id, text) values (1, 1, 'Nice');
+insert into comment (id, post_id, text) values (2, 1, 'Thanks');
+insert into comment (id, post_id, text) values (3, 2, 'Wrong');
@@ -0,0 +1,130 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.result_streaming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResultStreamingTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/result_streaming/Config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/result_streaming/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldImplyResultOrdered() {
+    assertTrue(sqlSessionFactory.getConfiguration().getMappedStatement("org.apache.ibatis.submitted.result_streaming.Mapper.streamBlogs").isResultOrdered());
+  }
+
+  @Test
+  public void shouldMapSameBlogsAsUnorderedSelect() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      assertBlogs(sqlSession.<Blog> selectList("org.apache.ibatis.submitted.result_streaming.Mapper.getBlogs"));
+      assertBlogs(sqlSession.<Blog> selectList("org.apache.ibatis.submitted.result_streaming.Mapper.streamBlogs"));
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldHandOverCompletedBlogs() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      final List<Blog> blogs = new ArrayList<Blog>();
+      sqlSession.select("org.apache.ibatis.submitted.result_streaming.Mapper.streamBlogs", new ResultHandler<Blog>() {
+        @Override
+        public void handleResult(ResultContext<? extends Blog> resultContext) {
+          Blog blog = resultContext.getResultObject();
+          if (blog.getId() == 1) {
+            // complete when handed over, the rows of the next blog are already read
+            assertEquals(2, blog.getPosts().size());
+            assertEquals(2, blog.getPosts().get(0).getComments().size());
+          }
+          blogs.add(blog);
+        }
+      });
+      assertBlogs(blogs);
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldStreamBlogsFromCursor() throws Exception {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Cursor<Blog> cursor = sqlSession.selectCursor("org.apache.ibatis.submitted.result_streaming.Mapper.streamBlogs");
+      List<Blog> blogs = new ArrayList<Blog>();
+      for (Blog blog : cursor) {
+        blogs.add(blog);
+      }
+      cursor.close();
+      assertBlogs(blogs);
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  private void assertBlogs(List<Blog> blogs) {
+    assertEquals(3, blogs.size());
+    Blog databases = blogs.get(0);
+    assertEquals(2, databases.getPosts().size());
+    Post indexes = databases.getPosts().get(0);
+    assertEquals("jim", indexes.getAuthor().getName());
+    assertEquals(2, indexes.getComments().size());
+    assertEquals("Thanks", indexes.getComments().get(1).getText());
+    Post joins = databases.getPosts().get(1);
+    assertEquals("sally", joins.getAuthor().getName());
+    assertEquals(1, joins.getComments().size());
+    Blog cooking = blogs.get(1);
+    assertEquals(1, cooking.getPosts().size());
+    assertEquals("jim", cooking.getPosts().get(0).getAuthor().getName());
+    assertEquals(0, cooking.getPosts().get(0).getComments().size());
+    assertEquals(0, blogs.get(2).getPosts().size());
+  }
+
+}
@@ -0,0 +1,127 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.usesjava8.async_mapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncMapperTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    // create an SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader(
+        "org/apache/ibatis/submitted/usesjava8/async_mapper/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader(
+        "org/apache/ibatis/submitted/usesjava8/async_mapper/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldRunIndependentQueriesConcurrently() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      CompletableFuture<User> user1 = mapper.getUser(1);
+      CompletableFuture<User> user2 = mapper.getUser(2);
+      List<User> users = mapper.getUsers().toCompletableFuture().join();
+      assertEquals("User1", user1.join().getName());
+      assertEquals("User2", user2.join().getName());
+      assertEquals(2, users.size());
+      assertEquals(3, ((RecordingExecutor) sqlSessionFactory.getConfiguration().getAsyncExecutor()).getExecutions());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldCommitAsyncUpdates() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals(Integer.valueOf(1), mapper.insertUser(new User(3, "User3")).join());
+      assertNull(mapper.deleteUser(1).join());
+    } finally {
+      sqlSession.close();
+    }
+    sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers().toCompletableFuture().join();
+      assertEquals(2, users.size());
+      assertEquals(Integer.valueOf(2), users.get(0).getId());
+      assertEquals(Integer.valueOf(3), users.get(1).getId());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldCompleteExceptionallyWhenStatementFails() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      try {
+        mapper.insertUser(new User(1, "Duplicate")).join();
+        fail();
+      } catch (CompletionException e) {
+        assertTrue(e.getCause() instanceof PersistenceException);
+      }
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test(expected = BindingException.class)
+  public void shouldNotReturnCursorAsynchronously() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      sqlSession.getMapper(Mapper.class).getUserCursor();
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+}
@@ -68,9 +68,32 @@ public class BlobInputStreamTypeHandlerTest extends BaseTypeHandlerTest {
   public void shouldSetParameter() throws Exception {
     InputStream in = new ByteArrayInputStream("Hello".getBytes());
     TYPE_HANDLER.setParameter(ps, 1, in, null);
+    verify(ps).setBlob(1, in, 5L);
+  }
+
+  @Test
+  public void shouldSetParameterOfUnknownLength() throws Exception {
+    InputStream in = new BufferedInputStream(new ByteArrayInputStream("Hello".getBytes()));
+    TYPE_HANDLER.setParameter(ps, 1, in, null);
     verify(ps).setBlob(1, in);
   }
 
+  @Test
+  public void shouldSetParameterWithoutLengthWhenFileReportsNoSize() throws Exception {
+    File file = File.createTempFile("blob", ".bin");
+    try {
+      FileInputStream in = new FileInputStream(file);
+      try {
+        TYPE_HANDLER.setParameter(ps, 1, in, null);
+        verify(ps).setBlob(1, in);
+      } finally {
+        in.close();
+      }
+    } finally {
+      file.delete();
+    }
+  }
+
   @Override
   @Test
   public void shouldGetResultFromResultSetByName() throws Exception {
@@ -71,4 +71,10 @@ public class IntegerTypeHandlerTest extends BaseTypeHandlerTest {
     // Unnecessary
   }
 
-}
\ No newline at end of file
+  @Test
+  public void shouldGetPrimitiveResultFromResultSetByPosition() throws Exception {
+    when(rs.getInt(1)).thenReturn(100);
+    assertEquals(100, ((IntResultReader) TYPE_HANDLER).getInt(rs, 1));
+  }
+
+}
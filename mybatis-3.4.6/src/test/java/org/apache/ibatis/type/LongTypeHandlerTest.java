@@ -71,4 +71,10 @@ public class LongTypeHandlerTest extends BaseTypeHandlerTest {
     // Unnecessary
   }
 
-}
\ No newline at end of file
+  @Test
+  public void shouldGetPrimitiveResultFromResultSetByPosition() throws Exception {
+    when(rs.getLong(1)).thenReturn(100L);
+    assertEquals(100L, ((LongResultReader) TYPE_HANDLER).getLong(rs, 1));
+  }
+
+}
@@ -214,4 +214,21 @@ public class TypeHandlerRegistryTest {
     typeHandlerRegistry.register(Address.class, StringTypeHandler.class);
     assertTrue(typeHandlerRegistry.hasTypeHandler(Address.class));
   }
+
+  @Test
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  public void shouldResolveAgainAfterRegisteringHandler() {
+    class Address {}
+    TypeHandler clobHandler = new ClobTypeHandler();
+    assertNull(typeHandlerRegistry.getTypeHandler(Address.class, JdbcType.CLOB));
+    typeHandlerRegistry.register(Address.class, JdbcType.CLOB, clobHandler);
+    assertSame(clobHandler, typeHandlerRegistry.getTypeHandler(Address.class, JdbcType.CLOB));
+    assertSame("Sole handler is used for any JDBC type.", clobHandler, typeHandlerRegistry.getTypeHandler(Address.class, JdbcType.VARCHAR));
+
+    TypeHandler stringHandler = new StringTypeHandler();
+    typeHandlerRegistry.register(Address.class, stringHandler);
+    assertSame(clobHandler, typeHandlerRegistry.getTypeHandler(Address.class, JdbcType.CLOB));
+    assertSame(stringHandler, typeHandlerRegistry.getTypeHandler(Address.class, JdbcType.VARCHAR));
+    assertSame(stringHandler, typeHandlerRegistry.getTypeHandler(Address.class));
+  }
 }